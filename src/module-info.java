@@ -7,6 +7,9 @@
  */
 module BFSPuzzles {
     requires transitive javafx.controls;
+    requires jdk.httpserver;
+    requires jdk.jfr;
+    uses solver.SearchStrategy;
     exports puzzles.tipover.gui;
     exports puzzles.lunarlanding.gui;
 }
@@ -1,8 +1,11 @@
 package puzzles.clock;
 
 import solver.ClockConfiguration;
+import solver.SearchOptions;
 import solver.Solver;
 
+import java.util.List;
+
 import static java.lang.Integer.parseInt;
 
 /**
@@ -16,17 +19,20 @@ public class Clock {
      * Run an instance of the clock puzzle.
      * @param args [0]: number of hours on the clock;
      *             [1]: starting time on the clock;
-     *             [2]: goal time to which the clock should be set.
+     *             [2]: goal time to which the clock should be set;
+     *             followed by any of the search options.
      */
     public static void main( String[] args ) {
-        if ( args.length != 3 ) {
-            System.out.println( "Usage: java Clock hours start end" );
+        SearchOptions options = SearchOptions.tryParse( args );
+        if ( options == null || options.getArguments().size() != 3 ) {
+            System.out.println( "Usage: java Clock hours start end " + SearchOptions.usage() );
         }
         else {
-            System.out.println("Hours: " + args[0] + ", Start: " + args[1] + ", End: " + args[2]);
-            ClockConfiguration initialConfig = new ClockConfiguration(parseInt(args[0]),
-                    parseInt(args[2]), parseInt(args[1]));
-            Solver.solve(initialConfig);
+            List<String> arguments = options.getArguments();
+            System.out.println("Hours: " + arguments.get(0) + ", Start: " + arguments.get(1) + ", End: " + arguments.get(2));
+            ClockConfiguration initialConfig = new ClockConfiguration(parseInt(arguments.get(0)),
+                    parseInt(arguments.get(2)), parseInt(arguments.get(1)));
+            Solver.solve(initialConfig, options);
         }
     }
 }
@@ -0,0 +1,224 @@
+package puzzles.corpus;
+
+import puzzles.lunarlanding.model.LunarLandingBoard;
+import puzzles.lunarlanding.model.LunarLandingConfig;
+import puzzles.tipover.model.TipOverConfig;
+import solver.Solver;
+import util.Coordinates;
+import util.Grid;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A read-only view of a binary puzzle corpus written by {@link PuzzleCorpusWriter}.
+ * The file is memory-mapped once, and boards are read straight out of the mapping,
+ * so opening a corpus of any size costs one system call instead of one per board.
+ * <br><br>
+ * Layout, all numbers big-endian:
+ * <pre>
+ *     int  MAGIC
+ *     int  VERSION
+ *     int  number of boards n
+ *     long offset of board 0 ... long offset of board n-1, then the end offset of the last board
+ *     board records
+ * </pre>
+ * A TipOver record is the byte TIPOVER, then shorts rows, columns, start row, start column,
+ * goal row and goal column, then one byte per tower height in row order.
+ * A LunarLanding record is the byte LUNAR_LANDING, then shorts rows, columns, lander row,
+ * lander column and the number of figures, then for each figure a byte name length,
+ * the ASCII name and shorts row and column.
+ * <br><br>
+ * All reads use absolute positions, so one corpus can be shared by many threads.
+ * @author Eli Lurie
+ * November 2021
+ */
+public class PuzzleCorpus implements AutoCloseable {
+    /** Marks the start of a corpus file: "BFSP" */
+    public static final int MAGIC = 0x42465350;
+    /** Version of the layout described above */
+    public static final int VERSION = 1;
+    /** Kind byte of a TipOver record */
+    public static final byte TIPOVER = 0;
+    /** Kind byte of a LunarLanding record */
+    public static final byte LUNAR_LANDING = 1;
+    /** Size in bytes of the magic, version and count */
+    static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int size;
+
+    /**
+     * Maps a corpus file into memory and checks its header.
+     * @param filename the corpus file
+     * @throws IOException if the file cannot be read or is not a corpus
+     */
+    public PuzzleCorpus(String filename) throws IOException {
+        this.channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ);
+        if(channel.size() > Integer.MAX_VALUE || channel.size() < HEADER_SIZE){
+            channel.close();
+            throw new IOException(filename + " is not a puzzle corpus of a mappable size");
+        }
+        this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        this.buffer.order(ByteOrder.BIG_ENDIAN);
+        if(buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION){
+            channel.close();
+            throw new IOException(filename + " is not a version " + VERSION + " puzzle corpus");
+        }
+        this.size = buffer.getInt(2 * Integer.BYTES);
+    }
+
+    /**
+     * Returns the number of boards in the corpus.
+     * @return number of boards
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Returns the byte offset of a board's record.
+     * @param index board number
+     * @return offset into the file
+     */
+    private int offset(int index){
+        if(index < 0 || index >= size){
+            throw new IndexOutOfBoundsException("Board " + index + " of " + size);
+        }
+        return (int) buffer.getLong(HEADER_SIZE + index * Long.BYTES);
+    }
+
+    /**
+     * Returns the kind of a board.
+     * @param index board number
+     * @return {@link #TIPOVER} or {@link #LUNAR_LANDING}
+     */
+    public byte kind(int index){
+        return buffer.get(offset(index));
+    }
+
+    /**
+     * Returns a read-only view of a board's record without copying it.
+     * The view starts at the kind byte and is laid out as described in the class comment.
+     * @param index board number
+     * @return the record bytes
+     */
+    public ByteBuffer record(int index){
+        int start = offset(index);
+        int end = (int) buffer.getLong(HEADER_SIZE + (index + 1) * Long.BYTES);
+        return buffer.slice(start, end - start).asReadOnlyBuffer().order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Builds the starting TipOver configuration of a board.
+     * @param index board number
+     * @return the configuration
+     * @throws IllegalArgumentException if the board is not a TipOver board
+     */
+    public TipOverConfig tipOver(int index){
+        int at = offset(index);
+        if(buffer.get(at) != TIPOVER){
+            throw new IllegalArgumentException("Board " + index + " is not a TipOver board");
+        }
+        int height = buffer.getShort(at + 1);
+        int width = buffer.getShort(at + 3);
+        Coordinates position = new Coordinates(buffer.getShort(at + 5), buffer.getShort(at + 7));
+        Coordinates goal = new Coordinates(buffer.getShort(at + 9), buffer.getShort(at + 11));
+        int cells = at + 13;
+        Grid<Integer> board = new Grid<>(0, height, width, true);
+        for(int i=0; i<height; i++){
+            for(int j=0; j<width; j++){
+                board.set((int) buffer.get(cells + i * width + j), i, j);
+            }
+        }
+        return new TipOverConfig(board, position, goal);
+    }
+
+    /**
+     * Builds the starting LunarLanding configuration of a board.
+     * @param index board number
+     * @param anonymousRobots true to compare robots by position only
+     * @return the configuration
+     * @throws IllegalArgumentException if the board is not a LunarLanding board
+     */
+    public LunarLandingConfig lunarLanding(int index, boolean anonymousRobots){
+        int at = offset(index);
+        if(buffer.get(at) != LUNAR_LANDING){
+            throw new IllegalArgumentException("Board " + index + " is not a LunarLanding board");
+        }
+        LunarLandingBoard board = new LunarLandingBoard(buffer.getShort(at + 1), buffer.getShort(at + 3),
+                new Coordinates(buffer.getShort(at + 5), buffer.getShort(at + 7)), anonymousRobots);
+        int figures = buffer.getShort(at + 9);
+        at += 11;
+        Coordinates explorer = null;
+        Map<Coordinates, String> robots = new HashMap<>();
+        for(int i=0; i<figures; i++){
+            int length = buffer.get(at);
+            byte[] name = new byte[length];
+            buffer.get(at + 1, name);
+            at += 1 + length;
+            Coordinates cords = new Coordinates(buffer.getShort(at), buffer.getShort(at + 2));
+            at += 4;
+            String figure = new String(name, StandardCharsets.US_ASCII);
+            if(figure.equals("E")){
+                explorer = cords;
+            }
+            else{
+                robots.put(cords, figure);
+            }
+        }
+        return new LunarLandingConfig(board, explorer, robots);
+    }
+
+    /**
+     * Releases the file. The mapping itself is freed once it is no longer reachable.
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Lists the boards of a corpus, or solves one of them.
+     * @param args corpus file name, optionally followed by the board number to solve
+     * @throws IOException if the corpus cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length < 1 || args.length > 2){
+            System.out.println("Usage: java PuzzleCorpus corpus [board]");
+        }
+        else{
+            try(PuzzleCorpus corpus = new PuzzleCorpus(args[0])){
+                if(args.length == 1){
+                    int tipOvers = 0;
+                    for(int i=0; i<corpus.size(); i++){
+                        if(corpus.kind(i) == TIPOVER){
+                            tipOvers++;
+                        }
+                    }
+                    System.out.println(corpus.size() + " boards: " + tipOvers + " TipOver, " +
+                            (corpus.size() - tipOvers) + " LunarLanding");
+                }
+                else{
+                    int index = Integer.parseInt(args[1]);
+                    if(corpus.kind(index) == TIPOVER){
+                        Solver.solve(corpus.tipOver(index));
+                    }
+                    else{
+                        Solver.solve(corpus.lunarLanding(index, false));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package puzzles.corpus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Packs TipOver and LunarLanding boards into a single binary corpus that {@link PuzzleCorpus} can map.
+ * Boards can be added from the existing text files or directly from their parts.
+ * @author Eli Lurie
+ * November 2021
+ */
+public class PuzzleCorpusWriter {
+    private final List<byte[]> records;
+
+    /**
+     * Creates a writer with no boards.
+     */
+    public PuzzleCorpusWriter(){
+        records = new ArrayList<>();
+    }
+
+    /**
+     * Returns the number of boards added so far.
+     * @return number of boards
+     */
+    public int size(){
+        return records.size();
+    }
+
+    /**
+     * Adds a TipOver board.
+     * @param heights tower heights, indexed by row then column
+     * @param startRow starting row of the tipper
+     * @param startCol starting column of the tipper
+     * @param goalRow row of the goal
+     * @param goalCol column of the goal
+     * @throws IllegalArgumentException if a tower is taller than a byte can hold
+     */
+    public void addTipOver(int[][] heights, int startRow, int startCol, int goalRow, int goalCol){
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(DataOutputStream out = new DataOutputStream(bytes)){
+            out.writeByte(PuzzleCorpus.TIPOVER);
+            out.writeShort(heights.length);
+            out.writeShort(heights.length == 0 ? 0 : heights[0].length);
+            out.writeShort(startRow);
+            out.writeShort(startCol);
+            out.writeShort(goalRow);
+            out.writeShort(goalCol);
+            for(int[] row : heights){
+                for(int height : row){
+                    if(height < 0 || height > Byte.MAX_VALUE){
+                        throw new IllegalArgumentException("Tower height " + height + " does not fit in a corpus");
+                    }
+                    out.writeByte(height);
+                }
+            }
+        }
+        catch(IOException ex){
+            throw new IllegalStateException(ex);
+        }
+        records.add(bytes.toByteArray());
+    }
+
+    /**
+     * Adds a LunarLanding board.
+     * @param rows number of rows
+     * @param cols number of columns
+     * @param landerRow row of the lander
+     * @param landerCol column of the lander
+     * @param figures figure names, "E" being the explorer
+     * @param figureRows row of each figure
+     * @param figureCols column of each figure
+     */
+    public void addLunarLanding(int rows, int cols, int landerRow, int landerCol,
+                                List<String> figures, int[] figureRows, int[] figureCols){
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(DataOutputStream out = new DataOutputStream(bytes)){
+            out.writeByte(PuzzleCorpus.LUNAR_LANDING);
+            out.writeShort(rows);
+            out.writeShort(cols);
+            out.writeShort(landerRow);
+            out.writeShort(landerCol);
+            out.writeShort(figures.size());
+            for(int i=0; i<figures.size(); i++){
+                byte[] name = figures.get(i).getBytes(StandardCharsets.US_ASCII);
+                out.writeByte(name.length);
+                out.write(name);
+                out.writeShort(figureRows[i]);
+                out.writeShort(figureCols[i]);
+            }
+        }
+        catch(IOException ex){
+            throw new IllegalStateException(ex);
+        }
+        records.add(bytes.toByteArray());
+    }
+
+    /**
+     * Adds a board from a text file. TipOver files start with six numbers
+     * (rows, columns, start and goal), LunarLanding files with four (rows, columns and lander).
+     * @param filename the puzzle file
+     * @throws FileNotFoundException if the file is not found
+     */
+    public void addFile(String filename) throws FileNotFoundException {
+        try(Scanner in = new Scanner(new File(filename))){
+            String[] header = in.nextLine().trim().split("\\s+");
+            int rows = Integer.parseInt(header[0]);
+            int cols = Integer.parseInt(header[1]);
+            if(header.length == 6){
+                int[][] heights = new int[rows][cols];
+                for(int i=0; i<rows; i++){
+                    for(int j=0; j<cols; j++){
+                        heights[i][j] = in.nextInt();
+                    }
+                }
+                addTipOver(heights, Integer.parseInt(header[2]), Integer.parseInt(header[3]),
+                        Integer.parseInt(header[4]), Integer.parseInt(header[5]));
+            }
+            else{
+                List<String> figures = new ArrayList<>();
+                List<int[]> cords = new ArrayList<>();
+                while(in.hasNextLine()){
+                    String line = in.nextLine();
+                    if(line.equals("")){
+                        break;
+                    }
+                    String[] fields = line.split("\\s+");
+                    figures.add(fields[0]);
+                    cords.add(new int[]{Integer.parseInt(fields[1]), Integer.parseInt(fields[2])});
+                }
+                int[] figureRows = new int[figures.size()];
+                int[] figureCols = new int[figures.size()];
+                for(int i=0; i<figures.size(); i++){
+                    figureRows[i] = cords.get(i)[0];
+                    figureCols[i] = cords.get(i)[1];
+                }
+                addLunarLanding(rows, cols, Integer.parseInt(header[2]), Integer.parseInt(header[3]),
+                        figures, figureRows, figureCols);
+            }
+        }
+    }
+
+    /**
+     * Writes every board added so far to a corpus file, replacing it if it exists.
+     * @param filename the corpus file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(String filename) throws IOException {
+        int indexSize = (records.size() + 1) * Long.BYTES;
+        ByteBuffer header = ByteBuffer.allocate(PuzzleCorpus.HEADER_SIZE + indexSize);
+        header.putInt(PuzzleCorpus.MAGIC);
+        header.putInt(PuzzleCorpus.VERSION);
+        header.putInt(records.size());
+        long offset = header.capacity();
+        for(byte[] record : records){
+            header.putLong(offset);
+            offset += record.length;
+        }
+        header.putLong(offset);
+        header.flip();
+        try(FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+            while(header.hasRemaining()){
+                channel.write(header);
+            }
+            ByteBuffer block = ByteBuffer.allocate(1 << 16);
+            for(byte[] record : records){
+                if(block.remaining() < record.length){
+                    block.flip();
+                    while(block.hasRemaining()){
+                        channel.write(block);
+                    }
+                    block.clear();
+                }
+                if(record.length > block.capacity()){
+                    channel.write(ByteBuffer.wrap(record));
+                }
+                else{
+                    block.put(record);
+                }
+            }
+            block.flip();
+            while(block.hasRemaining()){
+                channel.write(block);
+            }
+        }
+    }
+
+    /**
+     * Converts puzzle text files into a corpus. Directories are searched for .txt files,
+     * skipping PTUI command scripts ending in -in.txt.
+     * @param args corpus file name followed by puzzle files or directories
+     * @throws IOException if a file cannot be read or the corpus cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length < 2){
+            System.out.println("Usage: java PuzzleCorpusWriter corpus file-or-directory...");
+        }
+        else{
+            PuzzleCorpusWriter writer = new PuzzleCorpusWriter();
+            for(int i=1; i<args.length; i++){
+                addAll(writer, new File(args[i]));
+            }
+            writer.write(args[0]);
+            System.out.println("Wrote " + writer.size() + " boards to " + args[0]);
+        }
+    }
+
+    /**
+     * Adds a puzzle file, or every puzzle file under a directory in name order.
+     * @param writer the writer to add to
+     * @param file a file or directory
+     * @throws FileNotFoundException if a file is not found
+     */
+    private static void addAll(PuzzleCorpusWriter writer, File file) throws FileNotFoundException {
+        if(file.isDirectory()){
+            File[] children = file.listFiles();
+            if(children != null){
+                Arrays.sort(children);
+                for(File child : children){
+                    if(child.isDirectory() || (child.getName().endsWith(".txt") && !child.getName().endsWith("-in.txt"))){
+                        addAll(writer, child);
+                    }
+                }
+            }
+        }
+        else{
+            writer.addFile(file.getPath());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package puzzles.generator;
+
+import puzzles.lunarlanding.model.LunarLandingBoard;
+import puzzles.lunarlanding.model.LunarLandingConfig;
+import solver.SearchResult;
+import solver.Solver;
+import util.Coordinates;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates LunarLanding boards by sliding figures backwards from a board where the explorer is on the lander.
+ * @author Dara Prak
+ * November 2021
+ */
+public class LunarLandingGenerator implements PuzzleGenerator.BoardGenerator {
+    private static final String[] ROBOT_NAMES = {"B", "G", "O", "P", "Y", "C", "D", "F", "H", "I", "J", "K"};
+    private static final int MAX_BACKWARD_STATES = 200_000;
+    private static final int CANDIDATES = 5;
+
+    private final int rows;
+    private final int cols;
+    private final int minDepth;
+    private final int minStates;
+
+    /**
+     * Creates a generator.
+     * @param rows number of rows of each board
+     * @param cols number of columns of each board
+     * @param minDepth fewest moves the shortest solution may take
+     * @param minStates fewest unique configurations a forward search must see
+     */
+    public LunarLandingGenerator(int rows, int cols, int minDepth, int minStates)
+    {
+        this.rows = rows;
+        this.cols = cols;
+        this.minDepth = minDepth;
+        this.minStates = minStates;
+    }
+
+    /**
+     * Gets every configuration that reaches the given one in one slide. A figure could have stopped where it is
+     * only if the next spot in the direction it slid holds a figure, and it could have started from any empty
+     * spot behind it with nothing in between.
+     * @param config the configuration to move back from
+     * @return the predecessors
+     */
+    static List<LunarLandingConfig> predecessors(LunarLandingConfig config)
+    {
+        List<LunarLandingConfig> previous = new ArrayList<>();
+        Map<Coordinates, String> figures = config.getFigureCords();
+        for(Coordinates cords: figures.keySet())
+        {
+            for(Coordinates.Direction direction: Coordinates.cardinalNeighbors())
+            {
+                Coordinates blocker = cords.sum(direction.coords);
+                if(!config.getCurrentGrid().legalCoords(blocker) || !figures.containsKey(blocker))
+                {
+                    continue;
+                }
+                Coordinates start = cords.sum(direction.coords.multiply(-1));
+                while(config.getCurrentGrid().legalCoords(start) && !figures.containsKey(start))
+                {
+                    LunarLandingConfig before = new LunarLandingConfig(config);
+                    before.moveFigure(cords, start);
+                    previous.add(before);
+                    start = start.sum(direction.coords.multiply(-1));
+                }
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * Builds a random solved board, slides backwards from it, and checks the furthest boards with a forward search.
+     * @param random source of randomness owned by the calling thread
+     * @return the board in its text file format, or null if no candidate was hard enough
+     */
+    public String generate(Random random)
+    {
+        Coordinates lander = new Coordinates(random.nextInt(this.rows), random.nextInt(this.cols));
+        int numRobots = Math.min(2 + random.nextInt(4), Math.min(ROBOT_NAMES.length, this.rows * this.cols - 1));
+        Map<Coordinates, String> robots = new HashMap<>();
+        while(robots.size() < numRobots)
+        {
+            Coordinates cords = new Coordinates(random.nextInt(this.rows), random.nextInt(this.cols));
+            if(!cords.equals(lander) && !robots.containsKey(cords))
+            {
+                robots.put(cords, ROBOT_NAMES[robots.size()]);
+            }
+        }
+        LunarLandingBoard board = new LunarLandingBoard(this.rows, this.cols, lander, false);
+
+        List<LunarLandingConfig> furthest = PuzzleGenerator.retrograde(new LunarLandingConfig(board, lander, robots),
+                LunarLandingGenerator::predecessors, MAX_BACKWARD_STATES);
+        Collections.shuffle(furthest, random);
+        for(LunarLandingConfig candidate: furthest.subList(0, Math.min(CANDIDATES, furthest.size())))
+        {
+            SearchResult result = Solver.search(candidate);
+            if(result.isSolved() && result.getDepth() >= this.minDepth && result.getUniqueConfigs() >= this.minStates)
+            {
+                return format(candidate, result);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Writes a configuration in the LunarLanding file format, followed by a note on its difficulty.
+     * @param config the starting configuration
+     * @param result the forward search of the configuration
+     * @return the file contents
+     */
+    static String format(LunarLandingConfig config, SearchResult result)
+    {
+        StringBuilder text = new StringBuilder();
+        text.append(config.getCurrentGrid().getNRows()).append(' ').append(config.getCurrentGrid().getNCols())
+                .append(' ').append(config.getLanderCords().row()).append(' ').append(config.getLanderCords().col())
+                .append('\n');
+        Coordinates explorer = config.getExplorerCords();
+        text.append("E ").append(explorer.row()).append(' ').append(explorer.col()).append('\n');
+        for(Map.Entry<Coordinates, String> entry: config.getFigureCords().entrySet())
+        {
+            if(!entry.getKey().equals(explorer))
+            {
+                text.append(entry.getValue()).append(' ').append(entry.getKey().row()).append(' ')
+                        .append(entry.getKey().col()).append('\n');
+            }
+        }
+        text.append('\n');
+        text.append("solvable in ").append(result.getDepth()).append(" steps\n");
+        text.append(result.getUniqueConfigs()).append('/').append(result.getTotalConfigs()).append(" configurations\n");
+        return text.toString();
+    }
+}
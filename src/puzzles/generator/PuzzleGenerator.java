@@ -0,0 +1,146 @@
+package puzzles.generator;
+
+import solver.Configuration;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Generates random TipOver and LunarLanding boards of a requested difficulty, writing them in the
+ * same text format as the files under data/. Each worker thread repeatedly builds a random solved
+ * board, searches backwards from it to find the starting boards furthest away, and keeps a board
+ * once a forward search confirms its shortest solution and state space are large enough.
+ * @author Eli Lurie
+ * November 2021
+ */
+public class PuzzleGenerator {
+
+    /**
+     * One attempt at producing a board of the requested difficulty
+     */
+    public interface BoardGenerator {
+        /**
+         * Tries to build a board.
+         * @param random source of randomness owned by the calling thread
+         * @return the board in its text file format, or null if this attempt failed
+         */
+        String generate(Random random);
+    }
+
+    /**
+     * Searches backwards from a solved configuration and returns the configurations furthest from it.
+     * @param goal the solved configuration
+     * @param predecessors gives every configuration that reaches a configuration in one move
+     * @param maxStates the search stops after seeing this many configurations
+     * @param <C> type of configuration
+     * @return the configurations of the deepest complete or partial level
+     */
+    public static <C extends Configuration> List<C> retrograde(C goal, Function<C, List<C>> predecessors,
+                                                               int maxStates){
+        Set<C> seen = new HashSet<>();
+        seen.add(goal);
+        List<C> level = new ArrayList<>();
+        level.add(goal);
+        while(seen.size() < maxStates){
+            List<C> next = new ArrayList<>();
+            for(C current : level){
+                for(C previous : predecessors.apply(current)){
+                    if(seen.add(previous)){
+                        next.add(previous);
+                    }
+                }
+            }
+            if(next.isEmpty()){
+                break;
+            }
+            level = next;
+        }
+        return level;
+    }
+
+    /**
+     * Runs generator attempts on several threads until enough boards are found,
+     * and writes each one to its own file.
+     * @param generator the puzzle's generator
+     * @param count number of boards to write
+     * @param threads number of worker threads
+     * @param seed base seed, each worker gets its own derived seed
+     * @param directory where the files are written
+     * @param prefix start of each file name
+     * @throws IOException if the directory cannot be created
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public static void generate(BoardGenerator generator, int count, int threads, long seed,
+                                Path directory, String prefix) throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        AtomicInteger written = new AtomicInteger();
+        AtomicInteger attempts = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for(int t=0; t<threads; t++){
+            Random random = new Random(seed + t * 0x9E3779B97F4A7C15L);
+            pool.execute(() -> {
+                while(written.get() < count){
+                    attempts.incrementAndGet();
+                    String board = generator.generate(random);
+                    if(board != null){
+                        int number = written.getAndIncrement();
+                        if(number < count){
+                            Path file = directory.resolve(String.format("%s-%04d.txt", prefix, number));
+                            try(PrintWriter out = new PrintWriter(file.toFile())){
+                                out.print(board);
+                            }
+                            catch(FileNotFoundException ex){
+                                System.err.println("Could not write " + file);
+                            }
+                        }
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        System.out.println("Wrote " + count + " boards to " + directory + " in " + attempts.get() + " attempts");
+    }
+
+    /**
+     * Generates boards from the command line.
+     * @param args puzzle (tipover or lunarlanding), count, rows, columns, minimum solution depth,
+     *             minimum number of unique configurations, output directory, and optionally
+     *             the seed and the number of threads
+     * @throws IOException if the output directory cannot be created
+     * @throws InterruptedException if interrupted while generating
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if(args.length < 7 || args.length > 9 ||
+                !(args[0].equals("tipover") || args[0].equals("lunarlanding"))){
+            System.out.println("Usage: java PuzzleGenerator {tipover|lunarlanding} count rows cols " +
+                    "minDepth minStates directory [seed [threads]]");
+        }
+        else{
+            int count = Integer.parseInt(args[1]);
+            int rows = Integer.parseInt(args[2]);
+            int cols = Integer.parseInt(args[3]);
+            int minDepth = Integer.parseInt(args[4]);
+            int minStates = Integer.parseInt(args[5]);
+            long seed = args.length > 7 ? Long.parseLong(args[7]) : System.nanoTime();
+            int threads = args.length > 8 ? Integer.parseInt(args[8]) : Runtime.getRuntime().availableProcessors();
+            BoardGenerator generator = args[0].equals("tipover") ?
+                    new TipOverGenerator(rows, cols, minDepth, minStates) :
+                    new LunarLandingGenerator(rows, cols, minDepth, minStates);
+            generate(generator, count, threads, seed, Path.of(args[6]), args[0] + "-gen");
+        }
+    }
+}
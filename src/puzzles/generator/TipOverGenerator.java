@@ -0,0 +1,127 @@
+package puzzles.generator;
+
+import puzzles.tipover.model.TipOverCodec;
+import puzzles.tipover.model.TipOverConfig;
+import solver.SearchResult;
+import solver.Solver;
+import util.Coordinates;
+import util.Grid;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates TipOver boards by untipping towers backwards from a board where the tipper stands on the goal.
+ * @author Eli Lurie
+ * November 2021
+ */
+public class TipOverGenerator implements PuzzleGenerator.BoardGenerator {
+    private static final int MAX_HEIGHT = 4;
+    private static final int MAX_BACKWARD_STATES = 200_000;
+    private static final int CANDIDATES = 5;
+
+    private final int rows;
+    private final int cols;
+    private final int minDepth;
+    private final int minStates;
+
+    /**
+     * Creates a generator.
+     * @param rows number of rows of each board
+     * @param cols number of columns of each board
+     * @param minDepth fewest moves the shortest solution may take
+     * @param minStates fewest unique configurations a forward search must see
+     */
+    public TipOverGenerator(int rows, int cols, int minDepth, int minStates){
+        this.rows = rows;
+        this.cols = cols;
+        this.minDepth = minDepth;
+        this.minStates = minStates;
+    }
+
+    /**
+     * Returns every configuration that reaches the given one in one move: stepping from a neighboring
+     * tower, or standing on a tower that tipped over into the row of crates the tipper is on.
+     * @param config the configuration to move back from
+     * @return the predecessors
+     */
+    static List<TipOverConfig> predecessors(TipOverConfig config){
+        List<TipOverConfig> toReturn = new ArrayList<>();
+        Grid<Integer> board = config.getBoard();
+        Coordinates cords = config.getCords();
+        for(Coordinates.Direction d : Coordinates.cardinalNeighbors()){
+            Coordinates from = cords.sum(d.coords);
+            if(board.legalCoords(from) && board.get(from) != 0){
+                toReturn.add(new TipOverConfig(board, from, config.getGoal()));
+            }
+        }
+
+        if(board.get(cords) == 1){
+            for(Coordinates.Direction d : Coordinates.cardinalNeighbors()){
+                Coordinates origin = cords.sum(d.coords.multiply(-1));
+                if(!board.legalCoords(origin) || board.get(origin) != 0){
+                    continue;
+                }
+                for(int height=2; height<=MAX_HEIGHT; height++){
+                    Coordinates last = origin.sum(d.coords.multiply(height));
+                    if(!board.legalCoords(last) || board.get(last) != 1){
+                        break;
+                    }
+                    Grid<Integer> newBoard = new Grid<>(board);
+                    newBoard.set(height, origin);
+                    for(int i=1; i<=height; i++){
+                        newBoard.set(0, origin.sum(d.coords.multiply(i)));
+                    }
+                    toReturn.add(new TipOverConfig(newBoard, origin, config.getGoal()));
+                }
+            }
+        }
+        return toReturn;
+    }
+
+    /**
+     * Builds a random solved board, moves backwards from it, and checks the furthest boards with a forward search.
+     * @param random source of randomness owned by the calling thread
+     * @return the board in its text file format, or null if no candidate was hard enough
+     */
+    public String generate(Random random){
+        Grid<Integer> board = new Grid<>(0, rows, cols, true);
+        for(int i=0; i<rows; i++){
+            for(int j=0; j<cols; j++){
+                double roll = random.nextDouble();
+                if(roll < 0.35){
+                    board.set(1, i, j);
+                }
+                else if(roll < 0.55){
+                    board.set(2 + random.nextInt(MAX_HEIGHT - 1), i, j);
+                }
+            }
+        }
+        Coordinates goal = new Coordinates(random.nextInt(rows), random.nextInt(cols));
+        if(board.get(goal) == 0){
+            board.set(1, goal);
+        }
+
+        List<TipOverConfig> furthest = PuzzleGenerator.retrograde(new TipOverConfig(board, goal, goal),
+                TipOverGenerator::predecessors, MAX_BACKWARD_STATES);
+        Collections.shuffle(furthest, random);
+        for(TipOverConfig candidate : furthest.subList(0, Math.min(CANDIDATES, furthest.size()))){
+            SearchResult result = Solver.search(candidate);
+            if(result.isSolved() && result.getDepth() >= minDepth && result.getUniqueConfigs() >= minStates){
+                return format(candidate);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Writes a configuration in the TipOver file format.
+     * @param config the starting configuration
+     * @return the file contents
+     */
+    static String format(TipOverConfig config){
+        return new TipOverCodec().encode(config);
+    }
+}
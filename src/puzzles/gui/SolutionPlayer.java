@@ -0,0 +1,178 @@
+package puzzles.gui;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.Slider;
+import javafx.scene.layout.VBox;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The Solve &amp; Play controls shared by the puzzle GUIs. Solving finds the whole solution once on a background
+ * thread, then an animation timer plays its steps into the model. The steps are kept in an array, so pausing,
+ * stepping, changing speed and scrubbing to any step cost the same however long the solution is.
+ * @param <C> the puzzle's configuration type
+ * @author Eli Lurie
+ */
+public class SolutionPlayer<C> {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final Consumer<Consumer<List<C>>> solver;
+    private final Consumer<C> show;
+    private final VBox controls;
+    private final Label status = new Label("");
+    private final Button playButton = new Button("Play");
+    private final Slider speed = new Slider(1, 30, 4);
+    private final Slider scrub = new Slider(0, 0, 0);
+    private final AnimationTimer timer;
+    private Object[] steps = new Object[0];
+    private int index;
+    private boolean playing;
+    private long lastStep;
+    // true while the player moves the scrub slider itself, so its listener does not show the step again
+    private boolean moving;
+    // counts solves and stops, so a solve that finishes after a newer one started or a stop is ignored
+    private int solves;
+
+    /**
+     * Creates the controls.
+     * @param solver starts solving from the model's current configuration, and gives the steps of the solution,
+     *               from the start, to the consumer it is passed, or null if there is none. It may call the
+     *               consumer from any thread.
+     * @param show makes a step the model's current configuration
+     */
+    public SolutionPlayer(Consumer<Consumer<List<C>>> solver, Consumer<C> show){
+        this.solver = solver;
+        this.show = show;
+        this.timer = new AnimationTimer() {
+            @Override
+            public void handle(long now){
+                if(now - lastStep >= NANOS_PER_SECOND / (long) speed.getValue()){
+                    lastStep = now;
+                    if(index + 1 < steps.length){
+                        moveTo(index + 1);
+                    }
+                    if(index + 1 >= steps.length){
+                        pause();
+                    }
+                }
+            }
+        };
+
+        Button solve = new Button("Solve & Play");
+        solve.setOnAction(event -> solve());
+        playButton.setOnAction(event -> {
+            if(playing){
+                pause();
+            }
+            else{
+                play();
+            }
+        });
+        Button step = new Button("Step");
+        step.setOnAction(event -> {
+            pause();
+            if(index + 1 < steps.length){
+                moveTo(index + 1);
+            }
+        });
+        scrub.setBlockIncrement(1);
+        scrub.valueProperty().addListener((observable, oldValue, newValue) -> {
+            if(!moving && steps.length > 0){
+                moveTo((int) Math.round(newValue.doubleValue()));
+            }
+        });
+        controls = new VBox(solve, playButton, step, new Label("Speed"), speed, new Label("Step"), scrub, status);
+        playButton.setDisable(true);
+    }
+
+    /**
+     * Returns the controls, to be placed in the GUI.
+     * @return the controls
+     */
+    public VBox getControls(){
+        return controls;
+    }
+
+    /**
+     * Stops playing and forgets the solution, for when the model loads another puzzle.
+     */
+    public void stop(){
+        solves++;
+        pause();
+        steps = new Object[0];
+        playButton.setDisable(true);
+        status.setText("");
+    }
+
+    /**
+     * Stops playing, and solves from the model's current configuration in the background.
+     */
+    private void solve(){
+        stop();
+        status.setText("Solving...");
+        int solve = solves;
+        solver.accept(path -> Platform.runLater(() -> {
+            if(solve == solves){
+                loaded(path);
+            }
+        }));
+    }
+
+    /**
+     * Takes the steps of a finished solve and starts playing them.
+     * @param path every configuration from the start to the solution, or null if there is none
+     */
+    private void loaded(List<C> path){
+        if(path == null){
+            status.setText("No solution");
+            return;
+        }
+        steps = path.toArray();
+        status.setText((steps.length - 1) + " moves");
+        moving = true;
+        scrub.setMax(steps.length - 1);
+        scrub.setValue(0);
+        moving = false;
+        index = 0;
+        playButton.setDisable(false);
+        play();
+    }
+
+    /**
+     * Starts or continues playing from the current step.
+     */
+    private void play(){
+        if(index + 1 < steps.length){
+            playing = true;
+            playButton.setText("Pause");
+            lastStep = 0;
+            timer.start();
+        }
+    }
+
+    /**
+     * Stops playing at the current step.
+     */
+    private void pause(){
+        playing = false;
+        playButton.setText("Play");
+        timer.stop();
+    }
+
+    /**
+     * Shows one step in the model and moves the scrub slider to it.
+     * @param step index of the step
+     */
+    @SuppressWarnings("unchecked")
+    private void moveTo(int step){
+        index = Math.max(0, Math.min(step, steps.length - 1));
+        show.accept((C) steps[index]);
+        moving = true;
+        scrub.setValue(index);
+        moving = false;
+    }
+}
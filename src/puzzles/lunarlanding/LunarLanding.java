@@ -1,10 +1,13 @@
 package puzzles.lunarlanding;
 
+import puzzles.lunarlanding.model.LunarLandingCodec;
 import puzzles.lunarlanding.model.LunarLandingConfig;
+import solver.SearchOptions;
 import solver.Solver;
 import util.Coordinates;
 
 import java.io.FileNotFoundException;
+import java.util.List;
 
 /**
  * Runs the self-solving LunarLanding puzzle
@@ -14,16 +17,21 @@ import java.io.FileNotFoundException;
 public class LunarLanding {
     /**
      * Creates the initial LunarLandingConfig from a file and runs it through the Solver
-     * @param args the file name
+     * @param args the file name, optionally followed by "anonymous" to treat all robots as identical,
+     *             and any of the search options
      * @throws FileNotFoundException if the file is not found
      */
     public static void main(String[] args) throws FileNotFoundException {
-        if(args.length != 1)
+        SearchOptions options = SearchOptions.tryParse(args);
+        List<String> arguments = options == null ? List.of() : options.getArguments();
+        if(arguments.size() < 1 || arguments.size() > 2 || (arguments.size() == 2 && !arguments.get(1).equals("anonymous")))
         {
-            System.err.println("Usage: java LunarLanding file debug");
+            System.err.println("Usage: java LunarLanding file [anonymous] " + SearchOptions.usage());
         }else{
-            LunarLandingConfig initialConfig = new LunarLandingConfig(args[0]);
-            Solver.solve(initialConfig);
+            boolean anonymous = arguments.size() == 2;
+            LunarLandingConfig initialConfig = new LunarLandingConfig(arguments.get(0), anonymous);
+            options.setCodec(new LunarLandingCodec(anonymous));
+            Solver.solve(initialConfig, options);
         }
     }
 }
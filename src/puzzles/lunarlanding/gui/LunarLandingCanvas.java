@@ -0,0 +1,93 @@
+package puzzles.lunarlanding.gui;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import util.Grid;
+
+import java.util.Map;
+
+/**
+ * Draws the Lunar Landing board on one canvas instead of one button per figure, for boards too big for the
+ * buttons. The figure images are the sprites, and a redraw only draws the cells whose contents changed since the
+ * last one.
+ * @author Dara Prak
+ * November 2021
+ */
+class LunarLandingCanvas extends Canvas
+{
+    private final double cellSize;
+    // Sprite of each figure, by the string that represents it
+    private final Map<String, Image> figures;
+    private final Image lander;
+    private final Image other;
+    // The grid string drawn in each cell, by row and column, or null if the cell needs drawing
+    private String[][] drawn = new String[0][0];
+
+    /**
+     * Creates an empty canvas
+     * @param figures the image of each figure, by the string that represents it
+     * @param lander the image of the lander
+     * @param other the image of a robot with no image of its own
+     */
+    LunarLandingCanvas(Map<String, Image> figures, Image lander, Image other)
+    {
+        this.figures = figures;
+        this.lander = lander;
+        this.other = other;
+        this.cellSize = lander.getWidth();
+    }
+
+    /**
+     * Draws the cells of the grid that changed since the last draw
+     * @param grid the configuration's grid, "_" for empty, with a "!" in front on the lander
+     * @return true if the canvas changed size
+     */
+    boolean draw(Grid<String> grid)
+    {
+        boolean resized = this.drawn.length != grid.getNRows() || this.drawn[0].length != grid.getNCols();
+        if(resized)
+        {
+            setWidth(grid.getNCols() * this.cellSize);
+            setHeight(grid.getNRows() * this.cellSize);
+            this.drawn = new String[grid.getNRows()][grid.getNCols()];
+        }
+        GraphicsContext gc = getGraphicsContext2D();
+        for(int row=0; row<grid.getNRows(); row++)
+        {
+            for(int col=0; col<grid.getNCols(); col++)
+            {
+                String cell = grid.get(row, col);
+                if(!cell.equals(this.drawn[row][col]))
+                {
+                    double x = col * this.cellSize;
+                    double y = row * this.cellSize;
+                    gc.setFill(Color.WHITE);
+                    gc.fillRect(x, y, this.cellSize, this.cellSize);
+                    String figure = cell;
+                    if(cell.startsWith("!"))
+                    {
+                        gc.drawImage(this.lander, x, y);
+                        figure = cell.substring(1);
+                    }
+                    if(!figure.isEmpty() && !figure.equals("_"))
+                    {
+                        gc.drawImage(this.figures.getOrDefault(figure, this.other), x, y);
+                    }
+                    this.drawn[row][col] = cell;
+                }
+            }
+        }
+        return resized;
+    }
+
+    /**
+     * Gets the size of a cell, to turn a click into a row and column
+     * @return the width and height of a cell in pixels
+     */
+    double getCellSize()
+    {
+        return this.cellSize;
+    }
+}
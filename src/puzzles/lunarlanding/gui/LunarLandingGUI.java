@@ -1,6 +1,7 @@
 package puzzles.lunarlanding.gui;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -14,18 +15,24 @@ import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Text;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import puzzles.gui.SolutionPlayer;
+import puzzles.lunarlanding.model.LunarLandingConfig;
 import puzzles.lunarlanding.model.LunarLandingModel;
 import util.Coordinates;
 import util.Observer;
 
 import java.io.File;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 
 /**
- * The GUI view of the Lunar Landing puzzle.
+ * The GUI view of the Lunar Landing puzzle. Started with --canvas after the file name, it draws the board on a
+ * {@link LunarLandingCanvas} instead of with buttons, for large boards.
  * @author Dara Prak
  * November 2021
  */
@@ -44,6 +51,18 @@ public class LunarLandingGUI extends Application
 
     private Text message;
     private Stage currentStage;
+    private BorderPane borderPane;
+    private GridPane gameGrid;
+    private LunarLandingCanvas canvas;
+    private boolean useCanvas;
+    private SolutionPlayer<LunarLandingConfig> player;
+    // The figures the board is showing, and the button showing each of them
+    private Map<Coordinates, String> shownFigures = new HashMap<>();
+    private Map<Coordinates, FigureButton> figureButtons = new HashMap<>();
+    // Size and lander position of the board being shown, to tell when a load needs a new board
+    private int shownRows;
+    private int shownCols;
+    private Coordinates shownLander;
 
     /**
      * Creates a LunarLandingModel using a file and sets itself as an observer.
@@ -53,17 +72,24 @@ public class LunarLandingGUI extends Application
     {
         List<String> parameters = getParameters().getRaw();
         this.model = new LunarLandingModel(parameters.get(0));
-        this.model.addObserver(this);
+        this.useCanvas = parameters.contains("--canvas");
+        this.model.addObserver(this, Platform::runLater);
     }
 
     /**
      * Creates grid component of the GUI that represents the game board. It appears to be blank except for the
-     * FigureButtons and lander, if there is no figure on top of it.
+     * FigureButtons and lander, if there is no figure on top of it. The board is only made again when a file with a
+     * different size or lander is loaded, other changes move its FigureButtons in {@link #updateFigures()}.
      * @return a GridPane of the game board.
      */
     private GridPane makeGameGrid()
     {
         GridPane gridPane = new GridPane();
+        this.shownRows = this.model.getCurrentConfig().getCurrentGrid().getNRows();
+        this.shownCols = this.model.getCurrentConfig().getCurrentGrid().getNCols();
+        this.shownLander = this.model.getCurrentConfig().getLanderCords();
+        this.shownFigures = new HashMap<>();
+        this.figureButtons = new HashMap<>();
 
         for (int col=0; col<this.model.getCurrentConfig().getCurrentGrid().getNCols(); col++) {
             for (int row=0; row<this.model.getCurrentConfig().getCurrentGrid().getNRows(); row++) {
@@ -79,33 +105,103 @@ public class LunarLandingGUI extends Application
         gridPane.add(landerSpot, this.model.getCurrentConfig().getLanderCords().col(),
                 this.model.getCurrentConfig().getLanderCords().row());
 
-        Map<Coordinates, String> figures = new HashMap<>();
-        figures.putAll(this.model.getCurrentConfig().getFigureCords());
-        for(Map.Entry<Coordinates, String> entry: figures.entrySet())
+        for(Map.Entry<Coordinates, String> entry: this.model.getCurrentConfig().getFigureCords().entrySet())
         {
-            FigureButton figureButton = new FigureButton(entry.getValue());
-            figureButton.setOnAction(event -> this.model.choose(new Coordinates(entry.getKey().row(), entry.getKey().col())));
+            FigureButton figureButton = new FigureButton(entry.getValue(), entry.getKey());
             gridPane.add(figureButton, entry.getKey().col(), entry.getKey().row());
+            this.shownFigures.put(entry.getKey(), entry.getValue());
+            this.figureButtons.put(entry.getKey(), figureButton);
         }
         return gridPane;
     }
 
     /**
-     * Creates a window with the entire GUI allowing a view and controls for the model
-     * @param stage not used, required as it implements Application method
+     * Creates the canvas the game board is drawn on when the GUI is started with --canvas. Clicking a cell chooses
+     * the figure in it.
+     * @return the canvas, with the current board drawn
+     */
+    private LunarLandingCanvas makeCanvas()
+    {
+        Map<String, Image> figureImages = new HashMap<>();
+        figureImages.put("E", this.E);
+        figureImages.put("B", this.B);
+        figureImages.put("G", this.G);
+        figureImages.put("O", this.O);
+        figureImages.put("P", this.P);
+        figureImages.put("Y", this.Y);
+        this.canvas = new LunarLandingCanvas(figureImages, this.lander, this.other);
+        this.canvas.setOnMouseClicked(event -> this.model.choose(new Coordinates(
+                (int) (event.getY() / this.canvas.getCellSize()), (int) (event.getX() / this.canvas.getCellSize()))));
+        this.canvas.draw(this.model.getCurrentConfig().getCurrentGrid());
+        return this.canvas;
+    }
+
+    /**
+     * Brings the board up to date with the model's figures. Only the figures that changed position are touched: a
+     * FigureButton whose figure left its spot is moved to wherever a figure with the same name arrived, so a move
+     * changes one node no matter how big the board is.
+     */
+    private void updateFigures()
+    {
+        Map<Coordinates, String> figures = this.model.getCurrentConfig().getFigureCords();
+        Map<String, Deque<FigureButton>> leaving = new HashMap<>();
+        Iterator<Map.Entry<Coordinates, String>> shown = this.shownFigures.entrySet().iterator();
+        while(shown.hasNext())
+        {
+            Map.Entry<Coordinates, String> entry = shown.next();
+            if(!entry.getValue().equals(figures.get(entry.getKey())))
+            {
+                leaving.computeIfAbsent(entry.getValue(), figure -> new ArrayDeque<>())
+                        .add(this.figureButtons.remove(entry.getKey()));
+                shown.remove();
+            }
+        }
+        for(Map.Entry<Coordinates, String> entry: figures.entrySet())
+        {
+            if(!entry.getValue().equals(this.shownFigures.get(entry.getKey())))
+            {
+                Deque<FigureButton> sameFigure = leaving.get(entry.getValue());
+                FigureButton figureButton;
+                if(sameFigure != null && !sameFigure.isEmpty())
+                {
+                    figureButton = sameFigure.remove();
+                    figureButton.moveTo(entry.getKey());
+                }else{
+                    figureButton = new FigureButton(entry.getValue(), entry.getKey());
+                    this.gameGrid.add(figureButton, entry.getKey().col(), entry.getKey().row());
+                }
+                this.shownFigures.put(entry.getKey(), entry.getValue());
+                this.figureButtons.put(entry.getKey(), figureButton);
+            }
+        }
+        for(Deque<FigureButton> unused: leaving.values())
+        {
+            this.gameGrid.getChildren().removeAll(unused);
+        }
+    }
+
+    /**
+     * Creates a window with the entire GUI allowing a view and controls for the model. The window is made once and
+     * kept, updates only change the parts of it that changed.
+     * @param stage the window to show the GUI in
      */
     @Override
     public void start(Stage stage)
     {
-        this.currentStage = new Stage();
+        this.currentStage = stage;
 
-        BorderPane borderPane = new BorderPane();
+        this.borderPane = new BorderPane();
 
         this.message = new Text("File loaded");
         borderPane.setTop(this.message);
 
-        GridPane gameGrid = makeGameGrid();
-        borderPane.setCenter(gameGrid);
+        if(this.useCanvas)
+        {
+            borderPane.setCenter(makeCanvas());
+        }else{
+            this.gameGrid = makeGameGrid();
+            borderPane.setCenter(this.gameGrid);
+        }
 
         VBox controls = new VBox();
         GridPane directions = new GridPane();
@@ -123,15 +219,18 @@ public class LunarLandingGUI extends Application
         directions.add(east, 2, 1);
         Button load = new Button("LOAD");
         load.setOnAction(event -> {
+            this.player.stop();
             fileSelect();
                 });
         Button reload = new Button("RELOAD");
         reload.setOnAction(event -> {
+            this.player.stop();
             this.model.reload();
         });
         Button hint = new Button("HINT");
         hint.setOnAction(event -> this.model.hint());
-        controls.getChildren().addAll(directions, load, reload, hint);
+        this.player = new SolutionPlayer<>(this.model::solve, this.model::showStep);
+        controls.getChildren().addAll(directions, load, reload, hint, this.player.getControls());
         borderPane.setRight(controls);
 
         Scene scene = new Scene(borderPane);
@@ -159,14 +258,20 @@ public class LunarLandingGUI extends Application
 
     /**
      * A private inner class that extends the behavior of a JavaFX
-     * button to have an image.
+     * button to have an image. It remembers where its figure is, so it can be moved instead of made again.
      */
     private class FigureButton extends Button {
+        private Coordinates cords;
+
         /**
          * Create the button.
+         * @param figureString the figure shown by the button
+         * @param cords where the figure is
          */
-        public FigureButton(String figureString)
+        public FigureButton(String figureString, Coordinates cords)
         {
+            this.cords = cords;
+            this.setOnAction(event -> model.choose(this.cords));
             switch(figureString)
             {
                 case "E":
@@ -191,28 +296,58 @@ public class LunarLandingGUI extends Application
                     this.setGraphic(new ImageView(other));
             }
         }
+
+        /**
+         * Moves the button to its figure's new spot on the board.
+         * @param cords where the figure is now
+         */
+        public void moveTo(Coordinates cords)
+        {
+            this.cords = cords;
+            GridPane.setConstraints(this, cords.col(), cords.row());
+        }
     }
 
     /**
-     * Updates the GUI with the model's new information and message. It replaces the stage with the updated view.
+     * Updates the GUI with the model's new information and message. The figures that moved are moved on the
+     * board, and the board is only made again if a file with a different size or lander was loaded. On a canvas,
+     * only the cells that changed are drawn again.
      * @param lunarLandingModel this LunarLandingModel
      * @param announcement the message being sent for the PTUI to display
      */
     @Override
     public void update(LunarLandingModel lunarLandingModel, Object announcement)
     {
-        this.currentStage.hide();
-        start(this.currentStage);
+        if(this.model.getCurrentConfig() != null && this.canvas != null)
+        {
+            if(this.canvas.draw(this.model.getCurrentConfig().getCurrentGrid()))
+            {
+                this.currentStage.sizeToScene();
+            }
+        }
+        else if(this.model.getCurrentConfig() != null)
+        {
+            if(this.model.getCurrentConfig().getCurrentGrid().getNRows() != this.shownRows ||
+                    this.model.getCurrentConfig().getCurrentGrid().getNCols() != this.shownCols ||
+                    !this.model.getCurrentConfig().getLanderCords().equals(this.shownLander))
+            {
+                this.gameGrid = makeGameGrid();
+                this.borderPane.setCenter(this.gameGrid);
+                this.currentStage.sizeToScene();
+            }else{
+                updateFigures();
+            }
+        }
         this.message.setText(announcement.toString());
     }
 
     /**
      * The main method to start the GUI by loading a file.
-     * @param args the file name
+     * @param args the file name, then --canvas to draw the board on a canvas
      */
     public static void main( String[] args ) {
-        if(args.length != 1){
-            System.out.println("Usage: java LunarLandingGUI file debug");
+        if(args.length != 1 && !(args.length == 2 && args[1].equals("--canvas"))){
+            System.out.println("Usage: java LunarLandingGUI file [--canvas]");
         }else{
             Application.launch(args);
         }
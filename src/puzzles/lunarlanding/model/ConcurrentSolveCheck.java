@@ -0,0 +1,105 @@
+package puzzles.lunarlanding.model;
+
+import solver.Configuration;
+import solver.SearchResult;
+import solver.Solver;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Checks that puzzles loaded and solved on several threads at once get the same answers as when they are solved
+ * one at a time, since every configuration keeps its board in its own LunarLandingBoard rather than in statics
+ * @author Dara Prak
+ * November 2021
+ */
+public class ConcurrentSolveCheck
+{
+    private static final int ROUNDS = 20;
+
+    /**
+     * Loads and solves one file, and describes the answer
+     * @param filename the name of the file to read from
+     * @return the configuration counts and every configuration on the path to the solution
+     * @throws FileNotFoundException if the file is not found
+     */
+    private static String solve(String filename) throws FileNotFoundException
+    {
+        SearchResult result = Solver.search(new LunarLandingConfig(filename));
+        StringBuilder answer = new StringBuilder()
+                .append(result.getTotalConfigs()).append(' ').append(result.getUniqueConfigs());
+        if(result.isSolved())
+        {
+            for(Configuration config: result.getPath())
+            {
+                answer.append(config);
+            }
+        }else{
+            answer.append(" No solution");
+        }
+        return answer.toString();
+    }
+
+    /**
+     * Solves every file once on this thread, then every file at once on a pool of threads for several rounds,
+     * and compares each concurrent answer to the sequential one. Exits with status 1 if any differ.
+     * @param args the file names
+     * @throws FileNotFoundException if a file is not found
+     * @throws InterruptedException if interrupted while waiting for the pool
+     */
+    public static void main(String[] args) throws FileNotFoundException, InterruptedException
+    {
+        if(args.length < 1)
+        {
+            System.err.println("Usage: java ConcurrentSolveCheck file...");
+            return;
+        }
+        List<String> expected = new ArrayList<>();
+        for(String filename: args)
+        {
+            expected.add(solve(filename));
+        }
+
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        int mismatches = 0;
+        try
+        {
+            for(int round=0; round<ROUNDS; round++)
+            {
+                List<Future<String>> answers = new ArrayList<>();
+                for(String filename: args)
+                {
+                    answers.add(pool.submit(() -> solve(filename)));
+                }
+                for(int i=0; i<args.length; i++)
+                {
+                    String answer;
+                    try
+                    {
+                        answer = answers.get(i).get();
+                    }catch(ExecutionException ex){
+                        answer = String.valueOf(ex.getCause());
+                    }
+                    if(!answer.equals(expected.get(i)))
+                    {
+                        System.err.println(args[i] + ": round " + round + " differs from the sequential solve");
+                        mismatches++;
+                    }
+                }
+            }
+        }finally{
+            pool.shutdownNow();
+        }
+        System.out.printf("%d files, %d rounds on %d threads: %d mismatches%n", args.length, ROUNDS, threads, mismatches);
+        if(mismatches > 0)
+        {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package puzzles.lunarlanding.model;
+
+import util.Coordinates;
+
+/**
+ * The fixed parts of a LunarLanding puzzle that never change while it is being solved.
+ * Every configuration of the same puzzle shares one board, so puzzles loaded from different
+ * files can be solved at the same time.
+ * @author Dara Prak
+ * November 2021
+ */
+public class LunarLandingBoard {
+    private final int nRows;
+    private final int nCols;
+    private final Coordinates landerCords;
+    private final boolean anonymousRobots;
+    private final LunarLandingReachability reachability;
+
+    /**
+     * Creates a board
+     * @param nRows the number of rows
+     * @param nCols the number of columns
+     * @param landerCords the Coordinates of the lander
+     * @param anonymousRobots true if robots are compared by position only
+     */
+    public LunarLandingBoard(int nRows, int nCols, Coordinates landerCords, boolean anonymousRobots)
+    {
+        this.nRows = nRows;
+        this.nCols = nCols;
+        this.landerCords = landerCords;
+        this.anonymousRobots = anonymousRobots;
+        this.reachability = new LunarLandingReachability(nRows, nCols, landerCords);
+    }
+
+    /**
+     * Gets the number of rows of the board
+     * @return the number of rows
+     */
+    public int getNRows()
+    {
+        return this.nRows;
+    }
+
+    /**
+     * Gets the number of columns of the board
+     * @return the number of columns
+     */
+    public int getNCols()
+    {
+        return this.nCols;
+    }
+
+    /**
+     * Gets the Coordinates of the lander
+     * @return the lander's Coordinates
+     */
+    public Coordinates getLanderCords()
+    {
+        return this.landerCords;
+    }
+
+    /**
+     * Tells whether robots are interchangeable, so only their positions matter for equality
+     * @return true if robots are anonymous
+     */
+    public boolean hasAnonymousRobots()
+    {
+        return this.anonymousRobots;
+    }
+
+    /**
+     * Gets the analysis of where figures on this board can stop, used to bound the moves a configuration needs
+     * @return the analysis
+     */
+    LunarLandingReachability getReachability()
+    {
+        return this.reachability;
+    }
+}
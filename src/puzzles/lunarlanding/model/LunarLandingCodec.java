@@ -0,0 +1,149 @@
+package puzzles.lunarlanding.model;
+
+import solver.Configuration;
+import solver.ConfigurationCodec;
+import util.Coordinates;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes LunarLanding configurations in the puzzle file format, so they can be sent to another process.
+ * The robots are written in the order the configuration moves them, and read back in that order, so the
+ * rebuilt configuration lists its neighbors in the same order as the original. The codec keeps the board of
+ * each puzzle it has read, so configurations read back share one board and its reachability cache, as the
+ * configurations of a search in one process do.
+ * @author Dara Prak
+ * November 2021
+ */
+public class LunarLandingCodec implements ConfigurationCodec {
+    private static final long serialVersionUID = 1L;
+
+    private final boolean anonymousRobots;
+    // the boards read so far, by the first line of their encodings; not sent with the codec
+    private transient Map<String, LunarLandingBoard> boards;
+
+    /**
+     * Creates a codec
+     * @param anonymousRobots true if the rebuilt configurations compare robots by position only
+     */
+    public LunarLandingCodec(boolean anonymousRobots)
+    {
+        this.anonymousRobots = anonymousRobots;
+    }
+
+    /**
+     * Writes a configuration in the LunarLanding file format
+     * @param config a LunarLandingConfig
+     * @return the file contents
+     */
+    public String encode(Configuration config)
+    {
+        LunarLandingConfig lunarLanding = (LunarLandingConfig) config;
+        StringBuilder text = new StringBuilder(header(lunarLanding.getBoard())).append('\n');
+        Coordinates explorer = lunarLanding.getExplorerCords();
+        text.append("E ").append(explorer.row()).append(' ').append(explorer.col()).append('\n');
+        for(Map.Entry<Coordinates, String> entry: lunarLanding.getRobotCordsMap().entrySet())
+        {
+            text.append(entry.getValue()).append(' ').append(entry.getKey().row()).append(' ')
+                    .append(entry.getKey().col()).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Writes the cells of the explorer and the robots, with the robots' colors unless they are anonymous, in
+     * grid order. Equal configurations can hold their robots in different orders, so their encodings differ,
+     * but their keys do not.
+     * @param config a LunarLandingConfig
+     * @return the key
+     */
+    @Override
+    public String key(Configuration config)
+    {
+        LunarLandingConfig lunarLanding = (LunarLandingConfig) config;
+        List<Coordinates> cells = new ArrayList<>(lunarLanding.getRobotCordsMap().keySet());
+        cells.sort(Comparator.comparingInt(Coordinates::row).thenComparingInt(Coordinates::col));
+        Coordinates explorer = lunarLanding.getExplorerCords();
+        StringBuilder text = new StringBuilder(header(lunarLanding.getBoard())).append('\n')
+                .append(explorer.row()).append(' ').append(explorer.col());
+        for(Coordinates cell: cells)
+        {
+            text.append('\n');
+            if(!this.anonymousRobots)
+            {
+                text.append(lunarLanding.getRobotCordsMap().get(cell)).append(' ');
+            }
+            text.append(cell.row()).append(' ').append(cell.col());
+        }
+        return text.toString();
+    }
+
+    /**
+     * Reads a configuration written by {@link #encode(Configuration)}. It is built the same way the solver builds
+     * neighbors, by copying the robots into a new map.
+     * @param encoding the file contents
+     * @return the configuration
+     */
+    public Configuration decode(String encoding)
+    {
+        String[] lines = encoding.split("\n");
+        LunarLandingBoard board = boards().computeIfAbsent(lines[0], header ->
+        {
+            String[] size = header.split(" ");
+            return new LunarLandingBoard(Integer.parseInt(size[0]), Integer.parseInt(size[1]),
+                    new Coordinates(size[2], size[3]), this.anonymousRobots);
+        });
+        String[] explorer = lines[1].split(" ");
+        Map<Coordinates, String> robots = new LinkedHashMap<>();
+        for(int i=2; i<lines.length; i++)
+        {
+            String[] fields = lines[i].split(" ");
+            robots.put(new Coordinates(fields[1], fields[2]), fields[0]);
+        }
+        return new LunarLandingConfig(board, new Coordinates(explorer[1], explorer[2]), robots);
+    }
+
+    /**
+     * Reads the starting configuration the same way the launcher reads a puzzle file, and keeps its board for the
+     * configurations read after it
+     * @param encoding the file contents
+     * @return the configuration
+     */
+    @Override
+    public Configuration decodeInitial(String encoding)
+    {
+        LunarLandingConfig config = new LunarLandingConfig(new Scanner(encoding), this.anonymousRobots);
+        boards().putIfAbsent(header(config.getBoard()), config.getBoard());
+        return config;
+    }
+
+    /**
+     * Writes the first line of an encoding: the size of the board and the position of the lander
+     * @param board the board
+     * @return the line, without its line break
+     */
+    private static String header(LunarLandingBoard board)
+    {
+        return board.getNRows() + " " + board.getNCols() + " " + board.getLanderCords().row() + " " +
+                board.getLanderCords().col();
+    }
+
+    /**
+     * Gets the boards read so far, creating the map the first time, since it is not sent with the codec
+     * @return the boards by header
+     */
+    private synchronized Map<String, LunarLandingBoard> boards()
+    {
+        if(this.boards == null)
+        {
+            this.boards = new ConcurrentHashMap<>();
+        }
+        return this.boards;
+    }
+}
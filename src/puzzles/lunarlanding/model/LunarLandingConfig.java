@@ -1,11 +1,15 @@
 package puzzles.lunarlanding.model;
 
 import solver.Configuration;
+import solver.FingerprintedConfiguration;
+import solver.HeuristicConfiguration;
 import util.Coordinates;
 import util.Grid;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 
 /**
@@ -14,12 +18,29 @@ import java.util.*;
  * November 2021
  */
 
-public class LunarLandingConfig implements Configuration {
+public class LunarLandingConfig implements HeuristicConfiguration, FingerprintedConfiguration {
     private Grid<String> currentGrid;
-    private static Coordinates landerCords;
+    // Lander position and other puzzle data shared by every configuration of this puzzle
+    private final LunarLandingBoard board;
     private Coordinates explorerCords;
     // Map of the robots' Coordinates, and the string that represents them
     private Map<Coordinates, String> robotCordsMap;
+    // Occupancy bitmasks of all figures: bit c of rowMasks[r] and bit r of colMasks[c] are set if (r,c) holds a figure.
+    // Both are null if the board is too large for a 64 bit mask.
+    private long[] rowMasks;
+    private long[] colMasks;
+    // If robots are anonymous, the cells holding robots, indexed by row * number of columns + column, and kept up
+    // to date by every change to the robots. Null if robots are not anonymous.
+    private BitSet robotCells;
+    // The move that made this configuration, if getNeighbors made it
+    private LunarLandingMove move;
+    // Lower bound on the moves left, worked out the first time it is needed, or -1 before then
+    private int movesNeeded = -1;
+    // Order in which figures are slid when generating neighbors
+    private static final Coordinates.Direction[] SLIDE_DIRECTIONS = {
+            Coordinates.Direction.NORTH, Coordinates.Direction.SOUTH,
+            Coordinates.Direction.EAST, Coordinates.Direction.WEST
+    };
 
     /**
      * Constructs the initial configuration from an input file
@@ -28,32 +49,129 @@ public class LunarLandingConfig implements Configuration {
      */
     public LunarLandingConfig(String filename) throws FileNotFoundException
     {
-        try (Scanner in = new Scanner(new File(filename))) {
+        this(filename, false);
+    }
+
+    /**
+     * Constructs the initial configuration from an input file, optionally treating all robots as identical.
+     * With anonymous robots, two configurations that only differ by which robot sits where are considered equal,
+     * so the solver merges them into one state.
+     * @param filename filename the name of the file to read from
+     * @param anonymousRobots true to compare robots by position only
+     * @throws FileNotFoundException if the file is not found
+     */
+    public LunarLandingConfig(String filename, boolean anonymousRobots) throws FileNotFoundException
+    {
+        this(new Scanner(new File(filename)), anonymousRobots);
+    }
+
+    /**
+     * Constructs the initial configuration by reading a puzzle in the file format, then closes the scanner.
+     * The figure lines end at a blank line or at the end of the input.
+     * @param in the scanner to read from
+     * @param anonymousRobots true to compare robots by position only
+     * @throws IllegalArgumentException if the board is empty, a figure line is incomplete, the lander or a figure
+     * is off the board, or there is no explorer
+     */
+    public LunarLandingConfig(Scanner in, boolean anonymousRobots)
+    {
+        try (in) {
             int numRows = in.nextInt();
             int numCols = in.nextInt();
-            this.currentGrid = new Grid<>("_", numRows, numCols);
+            if(numRows < 1 || numCols < 1)
+            {
+                throw new IllegalArgumentException("The board must have at least one row and column");
+            }
 
             int landerRow = in.nextInt();
             int landerCol = in.nextInt();
-            landerCords = new Coordinates(landerRow, landerCol);
+            Coordinates landerCords = onBoard(new Coordinates(landerRow, landerCol), numRows, numCols);
+            this.board = new LunarLandingBoard(numRows, numCols, landerCords, anonymousRobots);
 
             this.robotCordsMap = new HashMap<>();
             in.nextLine();
-            String line = in.nextLine();
+            String line = in.hasNextLine() ? in.nextLine() : "";
             while(!line.equals(""))
             {
                 String[] fields = line.split("\\s+");
+                if(fields.length < 3)
+                {
+                    throw new IllegalArgumentException("Expected a figure, row and column, not " + line);
+                }
                 String figure = fields[0];
-                Coordinates figureCords = new Coordinates(fields[1], fields[2]);
+                Coordinates figureCords = onBoard(new Coordinates(fields[1], fields[2]), numRows, numCols);
                 if(figure.equals("E"))
                 {
                     this.explorerCords = figureCords;
                 }else{
                     this.robotCordsMap.put(figureCords, figure);
                 }
-                line = in.nextLine();
+                line = in.hasNextLine() ? in.nextLine() : "";
             }
-        } // try-with-resources, the file is closed automatically
+        } // try-with-resources, the scanner is closed automatically
+        if(this.explorerCords == null)
+        {
+            throw new IllegalArgumentException("The puzzle has no explorer");
+        }
+        placeFigures();
+    }
+
+    /**
+     * Checks that Coordinates read from a puzzle are on its board
+     * @param cords the Coordinates
+     * @param numRows the number of rows of the board
+     * @param numCols the number of columns of the board
+     * @return the same Coordinates
+     * @throws IllegalArgumentException if they are off the board
+     */
+    private static Coordinates onBoard(Coordinates cords, int numRows, int numCols)
+    {
+        if(cords.row() < 0 || cords.row() >= numRows || cords.col() < 0 || cords.col() >= numCols)
+        {
+            throw new IllegalArgumentException(cords + " is not on the " + numRows + "x" + numCols + " board");
+        }
+        return cords;
+    }
+
+    /**
+     * Constructs a configuration from figure positions that were already read, such as from a puzzle corpus
+     * @param board the board of the puzzle
+     * @param explorerCords the Coordinates of the explorer
+     * @param robotCordsMap map of the robots' Coordinates, and the string that represents them
+     */
+    public LunarLandingConfig(LunarLandingBoard board, Coordinates explorerCords, Map<Coordinates, String> robotCordsMap)
+    {
+        this.board = board;
+        this.explorerCords = explorerCords;
+        this.robotCordsMap = new HashMap<>(robotCordsMap);
+        placeFigures();
+    }
+
+    /**
+     * Builds the grid and the occupancy masks from the board and the figure positions
+     */
+    private void placeFigures()
+    {
+        this.currentGrid = new Grid<>("_", this.board.getNRows(), this.board.getNCols(), true);
+        Coordinates landerCords = this.board.getLanderCords();
+        if(this.board.getNRows() <= Long.SIZE && this.board.getNCols() <= Long.SIZE)
+        {
+            this.rowMasks = new long[this.board.getNRows()];
+            this.colMasks = new long[this.board.getNCols()];
+            occupy(this.explorerCords);
+            for(Coordinates cords: this.robotCordsMap.keySet())
+            {
+                occupy(cords);
+            }
+        }
+        if(this.board.hasAnonymousRobots())
+        {
+            this.robotCells = new BitSet(this.board.getNRows() * this.board.getNCols());
+            for(Coordinates cords: this.robotCordsMap.keySet())
+            {
+                this.robotCells.set(robotCell(cords));
+            }
+        }
         if(this.isSolution())
         {
             this.currentGrid.set("!E", landerCords);
@@ -86,6 +204,7 @@ public class LunarLandingConfig implements Configuration {
      */
     public LunarLandingConfig(LunarLandingConfig other)
     {
+        this.board = other.board;
         this.currentGrid = new Grid<>(other.currentGrid);
         int rowCopy = other.explorerCords.row();
         int colCopy = other.explorerCords.col();
@@ -93,94 +212,126 @@ public class LunarLandingConfig implements Configuration {
         Map<Coordinates, String> mapCopy = new HashMap<>();
         mapCopy.putAll(other.robotCordsMap);
         this.robotCordsMap = mapCopy;
+        if(other.rowMasks != null)
+        {
+            this.rowMasks = other.rowMasks.clone();
+            this.colMasks = other.colMasks.clone();
+        }
+        if(other.robotCells != null)
+        {
+            this.robotCells = (BitSet) other.robotCells.clone();
+        }
     }
 
     /**
-     * Gets the Coordinates of a figure after moving as far north as possible before it collides with another figure.
-     * If it goes off the grid, null is returned.
-     * @param currentGrid the current arrangement of the grid
-     * @param currentCords the Coordinates of the figure being moved
-     * @param otherCords the map of Coordinates and string representations of the figures it can collide with
-     * @return the new Coordinates of the figure
+     * Marks a cell as holding a figure in the occupancy bitmasks
+     * @param cords the Coordinates of the cell
      */
-    protected Coordinates getMaxNorth(Grid<String> currentGrid, Coordinates currentCords, Map<Coordinates, String> otherCords)
+    private void occupy(Coordinates cords)
     {
-        Coordinates newCords = currentCords.sum(Coordinates.Direction.NORTH.coords);
-        while(currentGrid.legalCoords(newCords))
+        if(this.rowMasks != null)
         {
-            if(otherCords.containsKey(newCords))
-            {
-                return newCords.sum(Coordinates.Direction.SOUTH.coords);
-            }
-            newCords = newCords.sum(Coordinates.Direction.NORTH.coords);
+            this.rowMasks[cords.row()] |= 1L << cords.col();
+            this.colMasks[cords.col()] |= 1L << cords.row();
         }
-        return null;
     }
 
     /**
-     * Gets the Coordinates of a figure after moving as far south as possible before it collides with another figure.
-     * If it goes off the grid, null is returned.
-     * @param currentGrid the current arrangement of the grid
-     * @param currentCords the Coordinates of the figure being moved
-     * @param otherCords the map of Coordinates and string representations of the figures it can collide with
-     * @return the new Coordinates of the figure
+     * Marks a cell as empty in the occupancy bitmasks
+     * @param cords the Coordinates of the cell
      */
-    protected Coordinates getMaxSouth(Grid<String> currentGrid, Coordinates currentCords, Map<Coordinates, String> otherCords)
+    private void vacate(Coordinates cords)
     {
-        Coordinates newCords = currentCords.sum(Coordinates.Direction.SOUTH.coords);
-        while(currentGrid.legalCoords(newCords))
+        if(this.rowMasks != null)
         {
-            if(otherCords.containsKey(newCords))
-            {
-                return newCords.sum(Coordinates.Direction.NORTH.coords);
-            }
-            newCords = newCords.sum(Coordinates.Direction.SOUTH.coords);
+            this.rowMasks[cords.row()] &= ~(1L << cords.col());
+            this.colMasks[cords.col()] &= ~(1L << cords.row());
         }
-        return null;
     }
 
     /**
-     * Gets the Coordinates of a figure after moving as far east as possible before it collides with another figure.
-     * If it goes off the grid, null is returned.
-     * @param currentGrid the current arrangement of the grid
-     * @param currentCords the Coordinates of the figure being moved
-     * @param otherCords the map of Coordinates and string representations of the figures it can collide with
-     * @return the new Coordinates of the figure
+     * Gets the Coordinates where a figure stops after sliding in a direction until it collides with another figure.
+     * The blocking figure is found with a single bit scan of the row or column occupancy mask. Boards too large
+     * for the masks fall back to walking cell by cell.
+     * @param cords the Coordinates of the figure being moved
+     * @param direction one of the four cardinal directions
+     * @return the new Coordinates of the figure, the same Coordinates if it is already blocked,
+     * or null if it slides off the grid
      */
-    protected Coordinates getMaxEast(Grid<String> currentGrid, Coordinates currentCords, Map<Coordinates, String> otherCords)
+    public Coordinates slide(Coordinates cords, Coordinates.Direction direction)
     {
-        Coordinates newCords = currentCords.sum(Coordinates.Direction.EAST.coords);
-        while(currentGrid.legalCoords(newCords))
+        int row = cords.row();
+        int col = cords.col();
+        if(this.rowMasks == null)
         {
-            if(otherCords.containsKey(newCords))
+            Coordinates newCords = cords.sum(direction.coords);
+            while(this.currentGrid.legalCoords(newCords))
             {
-                return newCords.sum(Coordinates.Direction.WEST.coords);
+                if(newCords.equals(this.explorerCords) || this.robotCordsMap.containsKey(newCords))
+                {
+                    return new Coordinates(newCords.row() - direction.coords.row(),
+                                           newCords.col() - direction.coords.col());
+                }
+                newCords = newCords.sum(direction.coords);
             }
-            newCords = newCords.sum(Coordinates.Direction.EAST.coords);
+            return null;
+        }
+        long blockers;
+        switch(direction)
+        {
+            case NORTH:
+                blockers = this.colMasks[col] & ((1L << row) - 1);
+                return blockers == 0 ? null : new Coordinates(Long.SIZE - Long.numberOfLeadingZeros(blockers), col);
+            case SOUTH:
+                blockers = this.colMasks[col] & (-2L << row);
+                return blockers == 0 ? null : new Coordinates(Long.numberOfTrailingZeros(blockers) - 1, col);
+            case WEST:
+                blockers = this.rowMasks[row] & ((1L << col) - 1);
+                return blockers == 0 ? null : new Coordinates(row, Long.SIZE - Long.numberOfLeadingZeros(blockers));
+            case EAST:
+                blockers = this.rowMasks[row] & (-2L << col);
+                return blockers == 0 ? null : new Coordinates(row, Long.numberOfTrailingZeros(blockers) - 1);
+            default:
+                throw new IllegalArgumentException("Figures can only slide in cardinal directions");
         }
-        return null;
     }
 
     /**
-     * Gets the Coordinates of a figure after moving as far west as possible before it collides with another figure.
-     * If it goes off the grid, null is returned.
-     * @param currentGrid the current arrangement of the grid
-     * @param currentCords the Coordinates of the figure being moved
-     * @param otherCords the map of Coordinates and string representations of the figures it can collide with
-     * @return the new Coordinates of the figure
+     * Moves the figure at one position to another, updating the grid, the figure positions and the occupancy masks.
+     * @param from the Coordinates of the figure being moved
+     * @param to where the figure is moved
      */
-    protected Coordinates getMaxWest(Grid<String> currentGrid, Coordinates currentCords, Map<Coordinates, String> otherCords)
+    public void moveFigure(Coordinates from, Coordinates to)
     {
-        Coordinates newCords = currentCords.sum(Coordinates.Direction.WEST.coords);
-        while(currentGrid.legalCoords(newCords))
+        String figure;
+        if(from.equals(this.explorerCords))
         {
-            if(otherCords.containsKey(newCords))
+            figure = "E";
+            this.explorerCords = to;
+        }else{
+            figure = this.robotCordsMap.remove(from);
+            this.robotCordsMap.put(to, figure);
+            if(this.robotCells != null)
             {
-                return newCords.sum(Coordinates.Direction.EAST.coords);
+                this.robotCells.clear(robotCell(from));
+                this.robotCells.set(robotCell(to));
             }
-            newCords = newCords.sum(Coordinates.Direction.WEST.coords);
         }
-        return null;
+        if(from.equals(this.board.getLanderCords()))
+        {
+            this.currentGrid.set("!", from);
+        }else{
+            this.currentGrid.set("_", from);
+        }
+        if(to.equals(this.board.getLanderCords()))
+        {
+            this.currentGrid.set("!" + figure, to);
+        }else{
+            this.currentGrid.set(figure, to);
+        }
+        vacate(from);
+        occupy(to);
+        this.movesNeeded = -1;
     }
 
     /**
@@ -192,175 +343,119 @@ public class LunarLandingConfig implements Configuration {
     {
         List<Configuration> neighbors = new ArrayList<>();
 
-        // does not move explorer north if one spot north has a figure or is out of bounds
-        if(!this.robotCordsMap.containsKey(this.explorerCords.sum(Coordinates.Direction.NORTH.coords)) &&
-                this.currentGrid.legalCoords(this.explorerCords.sum(Coordinates.Direction.NORTH.coords))) {
-            LunarLandingConfig moveENorth = new LunarLandingConfig(this);
-            moveENorth.currentGrid.set("_", moveENorth.explorerCords);
-            moveENorth.explorerCords = getMaxNorth(moveENorth.currentGrid, moveENorth.explorerCords, moveENorth.robotCordsMap);
-            // null means continuously moving north brought it out of bounds
-            if (moveENorth.explorerCords != null) {
-                if (moveENorth.isSolution()) {
-                    moveENorth.currentGrid.set("!E", moveENorth.explorerCords);
-                } else {
-                    moveENorth.currentGrid.set("E", moveENorth.explorerCords);
-                }
-                neighbors.add(moveENorth);
-            }
+        addSlides(neighbors, this.explorerCords);
+        for(Coordinates robotCords: this.robotCordsMap.keySet())
+        {
+            addSlides(neighbors, robotCords);
         }
+        return neighbors;
+    }
 
-        if(!this.robotCordsMap.containsKey(this.explorerCords.sum(Coordinates.Direction.SOUTH.coords)) &&
-                this.currentGrid.legalCoords(this.explorerCords.sum(Coordinates.Direction.SOUTH.coords))) {
-            LunarLandingConfig moveESouth = new LunarLandingConfig(this);
-            moveESouth.currentGrid.set("_", moveESouth.explorerCords);
-            moveESouth.explorerCords = getMaxSouth(moveESouth.currentGrid, moveESouth.explorerCords, moveESouth.robotCordsMap);
-            if (moveESouth.explorerCords != null) {
-                if (moveESouth.isSolution()) {
-                    moveESouth.currentGrid.set("!E", moveESouth.explorerCords);
-                } else {
-                    moveESouth.currentGrid.set("E", moveESouth.explorerCords);
+    /**
+     * Adds a neighbor for each direction the figure at the given Coordinates can legally slide in. A figure cannot
+     * move if the next spot has a figure, and the move is discarded if the figure slides off the grid. A neighbor
+     * the explorer can never land from, such as one that has lost the last robot it could stop against, is
+     * discarded as well, since no search could get anything out of it.
+     * @param neighbors the list of neighbors being built
+     * @param cords the Coordinates of the figure being moved
+     */
+    private void addSlides(List<Configuration> neighbors, Coordinates cords)
+    {
+        for(Coordinates.Direction direction: SLIDE_DIRECTIONS)
+        {
+            Coordinates newCords = slide(cords, direction);
+            if(newCords != null && !newCords.equals(cords))
+            {
+                LunarLandingConfig neighbor = new LunarLandingConfig(this);
+                neighbor.moveFigure(cords, newCords);
+                neighbor.move = new LunarLandingMove(cords.equals(this.explorerCords) ? "E" :
+                                                     this.robotCordsMap.get(cords), cords, direction);
+                if(neighbor.movesNeeded() != LunarLandingReachability.UNSOLVABLE)
+                {
+                    neighbors.add(neighbor);
                 }
-                neighbors.add(moveESouth);
             }
         }
+    }
 
-        if(!this.robotCordsMap.containsKey(this.explorerCords.sum(Coordinates.Direction.EAST.coords)) &&
-                this.currentGrid.legalCoords(this.explorerCords.sum(Coordinates.Direction.EAST.coords))) {
-            LunarLandingConfig moveEEast = new LunarLandingConfig(this);
-            moveEEast.currentGrid.set("_", moveEEast.explorerCords);
-            moveEEast.explorerCords = getMaxEast(moveEEast.currentGrid, moveEEast.explorerCords, moveEEast.robotCordsMap);
-            if (moveEEast.explorerCords != null) {
-                if (moveEEast.isSolution()) {
-                    moveEEast.currentGrid.set("!E", moveEEast.explorerCords);
-                } else {
-                    moveEEast.currentGrid.set("E", moveEEast.explorerCords);
-                }
-                neighbors.add(moveEEast);
-            }
-        }
+    /**
+     * Gets the move that made this configuration
+     * @return the figure and the direction it slid in, or null if getNeighbors did not make this configuration
+     */
+    @Override
+    public LunarLandingMove getMove()
+    {
+        return this.move;
+    }
 
-        if(!this.robotCordsMap.containsKey(this.explorerCords.sum(Coordinates.Direction.WEST.coords)) &&
-                this.currentGrid.legalCoords(this.explorerCords.sum(Coordinates.Direction.WEST.coords))) {
-            LunarLandingConfig moveEWest = new LunarLandingConfig(this);
-            moveEWest.currentGrid.set("_", moveEWest.explorerCords);
-            moveEWest.explorerCords = getMaxWest(moveEWest.currentGrid, moveEWest.explorerCords, moveEWest.robotCordsMap);
-            if (moveEWest.explorerCords != null) {
-                if (moveEWest.isSolution()) {
-                    moveEWest.currentGrid.set("!E", moveEWest.explorerCords);
-                } else {
-                    moveEWest.currentGrid.set("E", moveEWest.explorerCords);
-                }
-                neighbors.add(moveEWest);
-            }
-        }
+    /**
+     * Tells whether the current configuration is the solution, where the explorer is on the lander.
+     * @return true if the explorer is on the lander, false otherwise.
+     */
+    public boolean isSolution()
+    {
+        return this.explorerCords.equals(this.board.getLanderCords());
+    }
 
-        for(Map.Entry<Coordinates, String> entry: this.robotCordsMap.entrySet())
+    /**
+     * Estimates the moves left. The explorer has to make the last move, sliding along the lander's row or column,
+     * so it needs at least two moves if it is in neither. Beyond that, the figures it stops against have to get
+     * into place first, which {@link LunarLandingReachability} counts.
+     * @return 0 on the lander, otherwise at least 1 in line with it and at least 2 if not
+     */
+    public int estimate()
+    {
+        Coordinates landerCords = this.board.getLanderCords();
+        if(this.explorerCords.equals(landerCords))
         {
-            // Creates and fills otherCords with all the figures except this robot
-            Map<Coordinates, String> otherCords = new HashMap<>();
-            otherCords.putAll(this.robotCordsMap);
-            otherCords.remove(entry.getKey());
-            otherCords.put(this.explorerCords, "E");
-
-            if(!otherCords.containsKey(entry.getKey().sum(Coordinates.Direction.NORTH.coords)) &&
-                    this.currentGrid.legalCoords(entry.getKey().sum(Coordinates.Direction.NORTH.coords))) {
-                LunarLandingConfig moveRNorth = new LunarLandingConfig(this);
-                if (entry.getKey().equals(landerCords)) {
-                    moveRNorth.currentGrid.set("!", entry.getKey());
-                } else {
-                    moveRNorth.currentGrid.set("_", entry.getKey());
-                }
-                Coordinates newNorthCords = getMaxNorth(moveRNorth.currentGrid, entry.getKey(), otherCords);
-                moveRNorth.robotCordsMap.put(newNorthCords, entry.getValue());
-                moveRNorth.robotCordsMap.remove(entry.getKey());
-                if (newNorthCords != null) {
-                    if (newNorthCords.equals(landerCords)) {
-                        moveRNorth.currentGrid.set("!" + entry.getValue(), newNorthCords);
-                    } else {
-                        moveRNorth.currentGrid.set(entry.getValue(), newNorthCords);
-                    }
-                    neighbors.add(moveRNorth);
-                }
-            }
-
-            if(!otherCords.containsKey(entry.getKey().sum(Coordinates.Direction.SOUTH.coords)) &&
-                    this.currentGrid.legalCoords(entry.getKey().sum(Coordinates.Direction.SOUTH.coords))) {
-                LunarLandingConfig moveRSouth = new LunarLandingConfig(this);
-                if (entry.getKey().equals(landerCords)) {
-                    moveRSouth.currentGrid.set("!", entry.getKey());
-                } else {
-                    moveRSouth.currentGrid.set("_", entry.getKey());
-                }
-                Coordinates newSouthCords = getMaxSouth(moveRSouth.currentGrid, entry.getKey(), otherCords);
-                moveRSouth.robotCordsMap.put(newSouthCords, entry.getValue());
-                moveRSouth.robotCordsMap.remove(entry.getKey());
-                if (newSouthCords != null) {
-                    if (newSouthCords.equals(landerCords)) {
-                        moveRSouth.currentGrid.set("!" + entry.getValue(), newSouthCords);
-                    } else {
-                        moveRSouth.currentGrid.set(entry.getValue(), newSouthCords);
-                    }
-                    neighbors.add(moveRSouth);
-                }
-            }
+            return 0;
+        }
+        int moves = movesNeeded();
+        if(moves != LunarLandingReachability.UNSOLVABLE)
+        {
+            return moves;
+        }
+        return this.explorerCords.row() == landerCords.row() || this.explorerCords.col() == landerCords.col() ? 1 : 2;
+    }
 
-            if(!otherCords.containsKey(entry.getKey().sum(Coordinates.Direction.EAST.coords)) &&
-                    this.currentGrid.legalCoords(entry.getKey().sum(Coordinates.Direction.EAST.coords))) {
-                LunarLandingConfig moveREast = new LunarLandingConfig(this);
-                if (entry.getKey().equals(landerCords)) {
-                    moveREast.currentGrid.set("!", entry.getKey());
-                } else {
-                    moveREast.currentGrid.set("_", entry.getKey());
-                }
-                Coordinates newEastCords = getMaxEast(moveREast.currentGrid, entry.getKey(), otherCords);
-                moveREast.robotCordsMap.put(newEastCords, entry.getValue());
-                moveREast.robotCordsMap.remove(entry.getKey());
-                if (newEastCords != null) {
-                    if (newEastCords.equals(landerCords)) {
-                        moveREast.currentGrid.set("!" + entry.getValue(), newEastCords);
-                    } else {
-                        moveREast.currentGrid.set(entry.getValue(), newEastCords);
-                    }
-                    neighbors.add(moveREast);
-                }
-            }
+    /**
+     * Tells whether the explorer might ever land, using the same count as {@link #estimate()}
+     * @return false if there is certainly no solution, true if there may be one
+     */
+    @Override
+    public boolean mayBeSolvable()
+    {
+        return movesNeeded() != LunarLandingReachability.UNSOLVABLE;
+    }
 
-            if(!otherCords.containsKey(entry.getKey().sum(Coordinates.Direction.WEST.coords)) &&
-                    this.currentGrid.legalCoords(entry.getKey().sum(Coordinates.Direction.WEST.coords))) {
-                LunarLandingConfig moveRWest = new LunarLandingConfig(this);
-                if (entry.getKey().equals(landerCords)) {
-                    moveRWest.currentGrid.set("!", entry.getKey());
-                } else {
-                    moveRWest.currentGrid.set("_", entry.getKey());
-                }
-                Coordinates newWestCords = getMaxWest(moveRWest.currentGrid, entry.getKey(), otherCords);
-                moveRWest.robotCordsMap.put(newWestCords, entry.getValue());
-                moveRWest.robotCordsMap.remove(entry.getKey());
-                if (newWestCords != null) {
-                    if (newWestCords.equals(landerCords)) {
-                        moveRWest.currentGrid.set("!" + entry.getValue(), newWestCords);
-                    } else {
-                        moveRWest.currentGrid.set(entry.getValue(), newWestCords);
-                    }
-                    neighbors.add(moveRWest);
-                }
-            }
+    /**
+     * Gets the lower bound on the moves left, working it out the first time
+     * @return the moves, or LunarLandingReachability.UNSOLVABLE if the explorer can never land
+     */
+    private int movesNeeded()
+    {
+        if(this.movesNeeded == -1)
+        {
+            this.movesNeeded = this.board.getReachability().movesNeeded(this.explorerCords,
+                                                                         this.robotCordsMap.keySet());
         }
-        return neighbors;
+        return this.movesNeeded;
     }
 
     /**
-     * Tells whether the current configuration is the solution, where the explorer is on the lander.
-     * @return true if the explorer is on the lander, false otherwise.
+     * Gets the index of a cell in the robot cell bitmask
+     * @param cords the Coordinates of the cell
+     * @return row * number of columns + column
      */
-    public boolean isSolution()
+    private int robotCell(Coordinates cords)
     {
-        return this.explorerCords.equals(landerCords);
+        return cords.row() * this.board.getNCols() + cords.col();
     }
 
     /**
      * Tells whether this LunarLandingConfig equals another object. Two LunarLandingConfigs are equal if they
-     * have the same grid arrangement.
+     * have the same grid arrangement. If robots are anonymous, they are equal if the explorer is in the same spot
+     * and the same cells hold robots, regardless of which robot is where.
      * @param other object to compare to
      * @return True if both are LunarLandingConfigs with matching grids, false otherwise.
      */
@@ -371,21 +466,66 @@ public class LunarLandingConfig implements Configuration {
         if(other instanceof LunarLandingConfig)
         {
             LunarLandingConfig o = (LunarLandingConfig) other;
-            result = this.currentGrid.equals(o.currentGrid);
+            if(this.board.hasAnonymousRobots())
+            {
+                result = this.explorerCords.equals(o.explorerCords) && this.robotCells.equals(o.robotCells);
+            }else{
+                result = this.currentGrid.equals(o.currentGrid);
+            }
         }
         return result;
     }
 
     /**
-     * Calculates the hashcode of a LunarLandingConfig by using Grid's hashcode method
+     * Calculates the hashcode of a LunarLandingConfig by using Grid's hashcode method, or by using the explorer
+     * and robot positions if robots are anonymous
      * @return the integer of the LunarLandingConfig's hashcode
      */
     @Override
     public int hashCode()
     {
+        if(this.board.hasAnonymousRobots())
+        {
+            return 31 * this.explorerCords.hashCode() + this.robotCells.hashCode();
+        }
         return this.currentGrid.hashCode();
     }
 
+    /**
+     * Calculates the fingerprint of a LunarLandingConfig: the Zobrist hash of its grid, or if robots are
+     * anonymous, a sum of keys of the explorer's cell and of each robot's cell that does not depend on the robots'
+     * names
+     * @return the 64 bit fingerprint
+     */
+    public long fingerprint()
+    {
+        if(this.board.hasAnonymousRobots())
+        {
+            int nCols = this.currentGrid.getNCols();
+            int nCells = this.currentGrid.getNRows() * nCols;
+            long fingerprint = cellKey(nCells + this.explorerCords.row() * nCols + this.explorerCords.col());
+            for(Coordinates cords: this.robotCordsMap.keySet())
+            {
+                fingerprint += cellKey(cords.row() * nCols + cords.col());
+            }
+            return fingerprint;
+        }
+        return this.currentGrid.getZobristHash();
+    }
+
+    /**
+     * Calculates a random looking 64 bit key for a cell, so sums of keys of different cells rarely collide
+     * @param cell index of the cell
+     * @return the key
+     */
+    private static long cellKey(int cell)
+    {
+        long key = (cell + 1) * 0x9E3779B97F4A7C15L;
+        key = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+        key = (key ^ (key >>> 27)) * 0x94D049BB133111EBL;
+        return key ^ (key >>> 31);
+    }
+
     /**
      * Creates a string representation of the LunarLandingConfig's currentGrid
      * @return a string representing the grid
@@ -393,33 +533,44 @@ public class LunarLandingConfig implements Configuration {
     @Override
     public String toString()
     {
-        String grid = "\n     ";
+        StringBuilder grid = new StringBuilder();
+        try
+        {
+            appendTo(grid);
+        }catch(IOException e){
+            // a StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return grid.toString();
+    }
+
+    /**
+     * Writes the same text as toString straight into a destination, reading the grid cell by cell
+     * @param out where to write
+     * @throws IOException if out cannot be written to
+     */
+    @Override
+    public void appendTo(Appendable out) throws IOException
+    {
+        out.append("\n     ");
         for(int i=0; i<this.currentGrid.getNCols(); i++){
-            grid += i + "  ";
+            out.append(Integer.toString(i)).append("  ");
         }
-        grid += "\n   ";
+        out.append("\n   ");
         for(int i=0; i<this.currentGrid.getNCols(); i++){
-            grid += "___";
+            out.append("___");
         }
-        grid += "\n";
-        String[] gridRows = this.currentGrid.toString().split("\\|");
+        out.append('\n');
         for(int i=0; i<this.currentGrid.getNRows(); i++){
-            grid += i + " |";
-            // there is an extra empty leading element due to the format of currentGrid.toString
-            String row = gridRows[i+1];
-            String[] rowElements = row.split("\\s");
-            // there is an extra empty leading element due to how rowElements split
-            for (int j = 1; j < rowElements.length; j++) {
-                if(rowElements[j].length() == 2)
-                {
-                    grid += " "+rowElements[j];
-                }else{
-                    grid += "  "+rowElements[j];
-                }
+            out.append(Integer.toString(i)).append(" |");
+            for(int j=0; j<this.currentGrid.getNCols(); j++)
+            {
+                // cells are padded to three characters, so a figure on the lander lines up with the others
+                String cell = this.currentGrid.get(i, j);
+                out.append(cell.length() == 2 ? " " : "  ").append(cell);
             }
-            grid += "\n";
+            out.append('\n');
         }
-        return grid;
     }
 
     /**
@@ -459,7 +610,16 @@ public class LunarLandingConfig implements Configuration {
      */
     public Coordinates getLanderCords()
     {
-        return landerCords;
+        return this.board.getLanderCords();
+    }
+
+    /**
+     * Gets the board shared by every configuration of this puzzle
+     * @return the board
+     */
+    public LunarLandingBoard getBoard()
+    {
+        return this.board;
     }
 
     /**
@@ -477,7 +637,19 @@ public class LunarLandingConfig implements Configuration {
      */
     public void setExplorerCords(Coordinates cords)
     {
+        vacate(this.explorerCords);
         this.explorerCords = cords;
+        occupy(cords);
+        this.movesNeeded = -1;
+    }
+
+    /**
+     * Gets the robots' Coordinates and matching strings, in the order neighbors are generated
+     * @return the robot map, which must not be modified
+     */
+    Map<Coordinates, String> getRobotCordsMap()
+    {
+        return this.robotCordsMap;
     }
 
     /**
@@ -486,7 +658,15 @@ public class LunarLandingConfig implements Configuration {
      */
     public void removeRobotCordsMap(Coordinates key)
     {
-        this.robotCordsMap.remove(key);
+        if(this.robotCordsMap.remove(key) != null)
+        {
+            vacate(key);
+            if(this.robotCells != null)
+            {
+                this.robotCells.clear(robotCell(key));
+            }
+        }
+        this.movesNeeded = -1;
     }
 
     /**
@@ -497,5 +677,11 @@ public class LunarLandingConfig implements Configuration {
     public void putRobotCordsMap(Coordinates key, String value)
     {
         this.robotCordsMap.put(key, value);
+        occupy(key);
+        if(this.robotCells != null)
+        {
+            this.robotCells.set(robotCell(key));
+        }
+        this.movesNeeded = -1;
     }
 }
@@ -1,11 +1,17 @@
 package puzzles.lunarlanding.model;
 
+import solver.Configuration;
+import solver.SearchResult;
 import solver.Solver;
+import solver.SolverEvents;
 import util.Coordinates;
+import util.EventBus;
 import util.Observer;
 
 import java.io.FileNotFoundException;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * A model of the rules of the LunarLanding puzzle that UIs can use.
@@ -14,7 +20,7 @@ import java.util.*;
  */
 public class LunarLandingModel {
 
-    private List<Observer< LunarLandingModel, Object >> observers;
+    private final EventBus< LunarLandingModel, Object > observers = new EventBus<>(this);
 
     private LunarLandingConfig currentConfig;
 
@@ -23,12 +29,11 @@ public class LunarLandingModel {
     private Coordinates currentFigure;
 
     /**
-     * Creates the model by loading the configuration and creating the list of observers
+     * Creates the model by loading the configuration
      * @param filename the name of the file to be loaded
      */
     public LunarLandingModel(String filename)
     {
-        this.observers = new LinkedList<>();
         load(filename);
     }
 
@@ -96,47 +101,12 @@ public class LunarLandingModel {
         {
             announce("Legal directions are\n[north, south, east, west]");
         }else{
-            Coordinates newCords = null;
             LunarLandingConfig newConfig = new LunarLandingConfig(this.currentConfig);
-            Map<Coordinates, String> otherCords = new HashMap<>();
-            otherCords.putAll(newConfig.getFigureCords());
-            otherCords.remove(this.currentFigure);
-            switch (direction.toLowerCase(Locale.ROOT))
-            {
-                case "north":
-                    newCords = newConfig.getMaxNorth(newConfig.getCurrentGrid(), this.currentFigure, otherCords);
-                    break;
-                case "south":
-                    newCords = newConfig.getMaxSouth(newConfig.getCurrentGrid(), this.currentFigure, otherCords);
-                    break;
-                case "east":
-                    newCords = newConfig.getMaxEast(newConfig.getCurrentGrid(), this.currentFigure, otherCords);
-                    break;
-                case "west":
-                    newCords = newConfig.getMaxWest(newConfig.getCurrentGrid(), this.currentFigure, otherCords);
-            }
+            Coordinates newCords = newConfig.slide(this.currentFigure,
+                    Coordinates.Direction.valueOf(direction.toUpperCase(Locale.ROOT)));
             if(newCords != null && !newCords.equals(this.currentFigure))
             {
-                if(this.currentFigure.equals(newConfig.getLanderCords()))
-                {
-                    newConfig.setCurrentGrid("!", this.currentFigure);
-                }else{
-                    newConfig.setCurrentGrid("_", this.currentFigure);
-                }
-                if(newCords.equals(newConfig.getLanderCords()))
-                {
-                    newConfig.setCurrentGrid("!"+newConfig.getFigureCords().get(this.currentFigure), newCords);
-                }else{
-                    newConfig.setCurrentGrid(newConfig.getFigureCords().get(this.currentFigure), newCords);
-                }
-                if(newConfig.getExplorerCords().equals(this.currentFigure))
-                {
-                    newConfig.setExplorerCords(newCords);
-                }else{
-                    String figureString = newConfig.getFigureCords().get(this.currentFigure);
-                    newConfig.removeRobotCordsMap(this.currentFigure);
-                    newConfig.putRobotCordsMap(newCords, figureString);
-                }
+                newConfig.moveFigure(this.currentFigure, newCords);
                 this.currentConfig = newConfig;
                 if(newConfig.isSolution())
                 {
@@ -152,7 +122,8 @@ public class LunarLandingModel {
     }
 
     /**
-     * Finds the next move leading to the shortest solution using Solver.
+     * Finds the next move leading to the shortest solution using Solver, makes it, and announces which figure
+     * went which way, such as "Hint: E 1 2 north".
      */
     public void hint()
     {
@@ -164,7 +135,12 @@ public class LunarLandingModel {
         {
             announce("Current board is already solved");
         }else{
-            LunarLandingConfig newConfig = (LunarLandingConfig) Solver.getHint(this.currentConfig);
+            SolverEvents.Hint event = new SolverEvents.Hint();
+            event.begin();
+            SearchResult result = Solver.search(this.currentConfig, this.lastSuccessful);
+            LunarLandingConfig newConfig = (LunarLandingConfig) Solver.nextMove(result.getPredecessors(),
+                    result.getSolution());
+            event.finish(this.lastSuccessful, result);
             if(newConfig == null)
             {
                 announce("Unsolvable board");
@@ -172,11 +148,59 @@ public class LunarLandingModel {
                 this.currentConfig = newConfig;
                 if(this.currentConfig.isSolution())
                 {
-                    announce("I WON!");
+                    announce("Hint: " + newConfig.getMove() + "\nI WON!");
                 }else{
-                    announce("");
+                    announce("Hint: " + newConfig.getMove());
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the whole shortest solution from the current configuration on a background thread.
+     * @param whenSolved given every configuration from the current one to the solution, or null if there is no
+     *                   solution or no file is loaded, on the background thread
+     */
+    public void solve(Consumer<List<LunarLandingConfig>> whenSolved)
+    {
+        LunarLandingConfig start = this.currentConfig;
+        if(start == null)
+        {
+            whenSolved.accept(null);
+            return;
+        }
+        String puzzle = this.lastSuccessful;
+        Thread thread = new Thread(() -> {
+            List<Configuration> path = Solver.search(start, puzzle).getPath();
+            List<LunarLandingConfig> steps = null;
+            if(path != null)
+            {
+                steps = new ArrayList<>(path.size());
+                for(Configuration config: path)
+                {
+                    steps.add((LunarLandingConfig) config);
                 }
             }
+            whenSolved.accept(steps);
+        }, "LunarLanding solve");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Makes a step of a solution found by solve the current configuration. Moves copy the configuration before
+     * changing it, so the step itself is never changed.
+     * @param step the step
+     */
+    public void showStep(LunarLandingConfig step)
+    {
+        this.currentConfig = step;
+        this.currentFigure = null;
+        if(step.isSolution())
+        {
+            announce("I WON!");
+        }else{
+            announce("");
         }
     }
 
@@ -190,14 +214,37 @@ public class LunarLandingModel {
     }
 
     /**
-     * Add a new observer to the list for this model
+     * Add a new observer for this model, updated on the thread that changes the model, once for every change
      * @param obs an object that wants an
      *            {@link Observer#update(Object, Object)}
      *            when something changes here
      */
     public void addObserver(Observer<LunarLandingModel, Object> obs)
     {
-        this.observers.add(obs);
+        this.observers.subscribe(obs, Runnable::run);
+    }
+
+    /**
+     * Add a new observer for this model that is updated on its own executor, so a slow observer does not hold up
+     * the model. If the model changes faster than the executor runs updates, the observer only gets the latest one.
+     * The model only keeps a weak reference to the observer.
+     * @param obs an object that wants an
+     *            {@link Observer#update(Object, Object)}
+     *            when something changes here
+     * @param executor runs the observer's updates, such as Platform::runLater for a GUI
+     */
+    public void addObserver(Observer<LunarLandingModel, Object> obs, Executor executor)
+    {
+        this.observers.subscribeWeakly(obs, executor);
+    }
+
+    /**
+     * Remove an observer from this model
+     * @param obs the observer
+     */
+    public void removeObserver(Observer<LunarLandingModel, Object> obs)
+    {
+        this.observers.unsubscribe(obs);
     }
 
     /**
@@ -206,9 +253,6 @@ public class LunarLandingModel {
      */
     private void announce(String arg)
     {
-        for(var obs : this.observers)
-        {
-            obs.update( this, arg);
-        }
+        this.observers.publish(arg);
     }
 }
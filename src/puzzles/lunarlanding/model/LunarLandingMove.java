@@ -0,0 +1,29 @@
+package puzzles.lunarlanding.model;
+
+import solver.Move;
+import util.Coordinates;
+
+import java.util.Locale;
+
+/**
+ * One move of the puzzle: a figure sliding from where it was until it hits another figure.
+ * @param figure the string that represents the figure, such as "E" for the explorer
+ * @param from the Coordinates the figure slid from
+ * @param direction the direction it slid in
+ * @author Dara Prak
+ * November 2021
+ */
+public record LunarLandingMove(String figure, Coordinates from, Coordinates.Direction direction) implements Move
+{
+    /**
+     * Describes the move as the figure, its row and column, and the direction, such as "E 1 2 north", which is
+     * what the choose and go commands take
+     * @return the description
+     */
+    @Override
+    public String toString()
+    {
+        return this.figure + " " + this.from.row() + " " + this.from.col() + " " +
+                this.direction.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,189 @@
+package puzzles.lunarlanding.model;
+
+import util.Coordinates;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A lower bound on the moves a LunarLanding configuration needs, used to drop configurations that can never reach
+ * the lander and to cut off ones that cannot reach it within a search's depth bound.
+ * A figure can only stop on a cell if another figure sits just past it in the direction of travel, so the
+ * explorer can only land if some figure can get next to the lander first. The bound allows more than the rules
+ * do: every cell a figure may occupy counts as a blocker at the same time, and every figure moves in every round.
+ * Each round adds the cells any figure could stop on by sliding into a cell that may be occupied, and the
+ * explorer's cells likewise. The round in which the lander joins the explorer's cells is no more than the moves
+ * really needed, and if no cells are added before that, the explorer can never land.
+ * One instance is built per board, and holds what does not depend on where the figures are, along with the bounds
+ * already worked out for each layout of the figures, since many configurations share one: robots that only swap
+ * places, and every configuration the search reaches again by another path.
+ * @author Dara Prak
+ * November 2021
+ */
+final class LunarLandingReachability
+{
+    /** The bound of a configuration the explorer can never land from */
+    static final int UNSOLVABLE = Integer.MAX_VALUE;
+    /** The most layouts whose bounds are remembered per board */
+    private static final int MAX_CACHED = 1 << 16;
+
+    private final int nCols;
+    private final int lander;
+    // rays[cell * 4 + direction] lists the cells past cell in that direction, nearest first. A figure can only
+    // stop on a cell, sliding in a direction, if that list is not empty, and the figure it needs is on it.
+    private final int[][] rays;
+    // whether the lander can be stopped on at all; on a board of one cell, no figure can be next to it
+    private final boolean landable;
+    private final Map<Layout, Integer> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Where the explorer is and which cells the robots occupy, which is all the bound depends on
+     * @param explorer the cell of the explorer
+     * @param robots the cells of the robots
+     */
+    private record Layout(int explorer, BitSet robots)
+    {
+    }
+
+    /**
+     * Lists the cells a slide from each cell can pass, in each direction
+     * @param nRows the number of rows of the board
+     * @param nCols the number of columns of the board
+     * @param landerCords the Coordinates of the lander
+     */
+    LunarLandingReachability(int nRows, int nCols, Coordinates landerCords)
+    {
+        this.nCols = nCols;
+        this.lander = landerCords.row() * nCols + landerCords.col();
+        this.rays = new int[nRows * nCols * 4][];
+        boolean landable = false;
+        for(int cell=0; cell<nRows * nCols; cell++)
+        {
+            for(int d=0; d<4; d++)
+            {
+                Coordinates step = Coordinates.cardinalNeighbors().get(d).coords;
+                int length = 0;
+                int row = cell / nCols + step.row();
+                int col = cell % nCols + step.col();
+                int[] ray = new int[Math.max(nRows, nCols)];
+                while(row >= 0 && row < nRows && col >= 0 && col < nCols)
+                {
+                    ray[length++] = row * nCols + col;
+                    row += step.row();
+                    col += step.col();
+                }
+                this.rays[cell * 4 + d] = Arrays.copyOf(ray, length);
+                if(cell == this.lander && length > 0)
+                {
+                    landable = true;
+                }
+            }
+        }
+        this.landable = landable;
+    }
+
+    /**
+     * Calculates a lower bound on the moves needed to get the explorer onto the lander
+     * @param explorerCords the Coordinates of the explorer
+     * @param robotCords the Coordinates of every robot
+     * @return 0 if the explorer is on the lander, a number of moves no more than the shortest solution has, or
+     * {@link #UNSOLVABLE} if there is certainly no solution
+     */
+    int movesNeeded(Coordinates explorerCords, Collection<Coordinates> robotCords)
+    {
+        int explorer = explorerCords.row() * this.nCols + explorerCords.col();
+        if(explorer == this.lander)
+        {
+            return 0;
+        }
+        if(!this.landable || robotCords.isEmpty())
+        {
+            // the explorer has nothing to stop against, and no robot can ever stop either
+            return UNSOLVABLE;
+        }
+        BitSet robots = new BitSet(this.rays.length / 4);
+        for(Coordinates cords: robotCords)
+        {
+            robots.set(cords.row() * this.nCols + cords.col());
+        }
+        Layout layout = new Layout(explorer, robots);
+        Integer cached = this.cache.get(layout);
+        if(cached != null)
+        {
+            return cached;
+        }
+        int moves = relax(explorer, robots);
+        if(this.cache.size() < MAX_CACHED)
+        {
+            this.cache.put(layout, moves);
+        }
+        return moves;
+    }
+
+    /**
+     * Works out the bound of a layout, one round at a time. Instead of copying the cells reached before each
+     * round, each cell records the round it was first reached in, and a round only stops against, and moves the
+     * explorer from, cells reached in earlier rounds.
+     * @param explorer the cell of the explorer, not the lander
+     * @param robots the cells of the robots, not empty
+     * @return the bound, or {@link #UNSOLVABLE}
+     */
+    private int relax(int explorer, BitSet robots)
+    {
+        int[] occupied = new int[this.rays.length / 4];
+        int[] explored = new int[occupied.length];
+        Arrays.fill(occupied, UNSOLVABLE);
+        Arrays.fill(explored, UNSOLVABLE);
+        occupied[explorer] = 0;
+        explored[explorer] = 0;
+        for(int cell=robots.nextSetBit(0); cell>=0; cell=robots.nextSetBit(cell + 1))
+        {
+            occupied[cell] = 0;
+        }
+        for(int moves=1; ; moves++)
+        {
+            boolean grew = false;
+            for(int cell=0; cell<occupied.length; cell++)
+            {
+                if(occupied[cell] >= moves)
+                {
+                    continue;
+                }
+                for(int d=0; d<4; d++)
+                {
+                    int[] ray = this.rays[cell * 4 + d];
+                    // stopping on ray[i - 1] needs a figure on ray[i]; ray[0] is next to the figure, so it cannot
+                    // stop short of it
+                    for(int i=1; i<ray.length; i++)
+                    {
+                        if(occupied[ray[i]] < moves)
+                        {
+                            int stop = ray[i - 1];
+                            if(occupied[stop] == UNSOLVABLE)
+                            {
+                                occupied[stop] = moves;
+                                grew = true;
+                            }
+                            if(explored[cell] < moves && explored[stop] == UNSOLVABLE)
+                            {
+                                explored[stop] = moves;
+                                grew = true;
+                            }
+                        }
+                    }
+                }
+            }
+            if(explored[this.lander] != UNSOLVABLE)
+            {
+                return moves;
+            }
+            if(!grew)
+            {
+                return UNSOLVABLE;
+            }
+        }
+    }
+}
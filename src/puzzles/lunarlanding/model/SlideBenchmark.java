@@ -0,0 +1,213 @@
+package puzzles.lunarlanding.model;
+
+import util.Coordinates;
+import util.Grid;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Micro-benchmark comparing the cell by cell slide walk against the bitmask slide used for neighbor generation
+ * @author Dara Prak
+ * November 2021
+ */
+public class SlideBenchmark {
+    private static final int WARMUP_ROUNDS = 200_000;
+    private static final int TIMED_ROUNDS = 2_000_000;
+
+    /**
+     * Gets the Coordinates of a figure after moving as far north as possible before it collides with another figure.
+     * If it goes off the grid, null is returned.
+     * @param currentGrid the current arrangement of the grid
+     * @param currentCords the Coordinates of the figure being moved
+     * @param otherCords the map of Coordinates and string representations of the figures it can collide with
+     * @return the new Coordinates of the figure
+     */
+    private static Coordinates getMaxNorth(Grid<String> currentGrid, Coordinates currentCords, Map<Coordinates, String> otherCords)
+    {
+        Coordinates newCords = currentCords.sum(Coordinates.Direction.NORTH.coords);
+        while(currentGrid.legalCoords(newCords))
+        {
+            if(otherCords.containsKey(newCords))
+            {
+                return newCords.sum(Coordinates.Direction.SOUTH.coords);
+            }
+            newCords = newCords.sum(Coordinates.Direction.NORTH.coords);
+        }
+        return null;
+    }
+
+    /**
+     * Gets the Coordinates of a figure after moving as far south as possible before it collides with another figure.
+     * If it goes off the grid, null is returned.
+     * @param currentGrid the current arrangement of the grid
+     * @param currentCords the Coordinates of the figure being moved
+     * @param otherCords the map of Coordinates and string representations of the figures it can collide with
+     * @return the new Coordinates of the figure
+     */
+    private static Coordinates getMaxSouth(Grid<String> currentGrid, Coordinates currentCords, Map<Coordinates, String> otherCords)
+    {
+        Coordinates newCords = currentCords.sum(Coordinates.Direction.SOUTH.coords);
+        while(currentGrid.legalCoords(newCords))
+        {
+            if(otherCords.containsKey(newCords))
+            {
+                return newCords.sum(Coordinates.Direction.NORTH.coords);
+            }
+            newCords = newCords.sum(Coordinates.Direction.SOUTH.coords);
+        }
+        return null;
+    }
+
+    /**
+     * Gets the Coordinates of a figure after moving as far east as possible before it collides with another figure.
+     * If it goes off the grid, null is returned.
+     * @param currentGrid the current arrangement of the grid
+     * @param currentCords the Coordinates of the figure being moved
+     * @param otherCords the map of Coordinates and string representations of the figures it can collide with
+     * @return the new Coordinates of the figure
+     */
+    private static Coordinates getMaxEast(Grid<String> currentGrid, Coordinates currentCords, Map<Coordinates, String> otherCords)
+    {
+        Coordinates newCords = currentCords.sum(Coordinates.Direction.EAST.coords);
+        while(currentGrid.legalCoords(newCords))
+        {
+            if(otherCords.containsKey(newCords))
+            {
+                return newCords.sum(Coordinates.Direction.WEST.coords);
+            }
+            newCords = newCords.sum(Coordinates.Direction.EAST.coords);
+        }
+        return null;
+    }
+
+    /**
+     * Gets the Coordinates of a figure after moving as far west as possible before it collides with another figure.
+     * If it goes off the grid, null is returned.
+     * @param currentGrid the current arrangement of the grid
+     * @param currentCords the Coordinates of the figure being moved
+     * @param otherCords the map of Coordinates and string representations of the figures it can collide with
+     * @return the new Coordinates of the figure
+     */
+    private static Coordinates getMaxWest(Grid<String> currentGrid, Coordinates currentCords, Map<Coordinates, String> otherCords)
+    {
+        Coordinates newCords = currentCords.sum(Coordinates.Direction.WEST.coords);
+        while(currentGrid.legalCoords(newCords))
+        {
+            if(otherCords.containsKey(newCords))
+            {
+                return newCords.sum(Coordinates.Direction.EAST.coords);
+            }
+            newCords = newCords.sum(Coordinates.Direction.WEST.coords);
+        }
+        return null;
+    }
+
+    /**
+     * Slides every figure in every direction with the cell walk
+     * @param config the configuration being measured
+     * @param figures the figure Coordinates
+     * @param others for each figure, the map of the figures it can collide with
+     * @return a checksum so the work is not optimized away
+     */
+    private static int walkAll(LunarLandingConfig config, Coordinates[] figures, List<Map<Coordinates, String>> others)
+    {
+        int checksum = 0;
+        for(int i=0; i<figures.length; i++)
+        {
+            Coordinates[] stops = {
+                    getMaxNorth(config.getCurrentGrid(), figures[i], others.get(i)),
+                    getMaxSouth(config.getCurrentGrid(), figures[i], others.get(i)),
+                    getMaxEast(config.getCurrentGrid(), figures[i], others.get(i)),
+                    getMaxWest(config.getCurrentGrid(), figures[i], others.get(i))
+            };
+            for(Coordinates stop: stops)
+            {
+                checksum += stop == null ? -1 : stop.row() * 31 + stop.col();
+            }
+        }
+        return checksum;
+    }
+
+    /**
+     * Slides every figure in every direction with the bitmask scan
+     * @param config the configuration being measured
+     * @param figures the figure Coordinates
+     * @return a checksum so the work is not optimized away
+     */
+    private static int slideAll(LunarLandingConfig config, Coordinates[] figures)
+    {
+        int checksum = 0;
+        for(Coordinates figure: figures)
+        {
+            Coordinates[] stops = {
+                    config.slide(figure, Coordinates.Direction.NORTH),
+                    config.slide(figure, Coordinates.Direction.SOUTH),
+                    config.slide(figure, Coordinates.Direction.EAST),
+                    config.slide(figure, Coordinates.Direction.WEST)
+            };
+            for(Coordinates stop: stops)
+            {
+                checksum += stop == null ? -1 : stop.row() * 31 + stop.col();
+            }
+        }
+        return checksum;
+    }
+
+    /**
+     * Runs both slide implementations on the initial configuration of each file and prints the time per slide
+     * @param args the file names
+     * @throws FileNotFoundException if a file is not found
+     */
+    public static void main(String[] args) throws FileNotFoundException
+    {
+        if(args.length < 1)
+        {
+            System.err.println("Usage: java SlideBenchmark file...");
+            return;
+        }
+        for(String filename: args)
+        {
+            LunarLandingConfig config = new LunarLandingConfig(filename);
+            Map<Coordinates, String> figureCords = config.getFigureCords();
+            Coordinates[] figures = figureCords.keySet().toArray(new Coordinates[0]);
+            List<Map<Coordinates, String>> others = new ArrayList<>();
+            for(Coordinates figure: figures)
+            {
+                Map<Coordinates, String> other = new HashMap<>(figureCords);
+                other.remove(figure);
+                others.add(other);
+            }
+            if(walkAll(config, figures, others) != slideAll(config, figures))
+            {
+                System.err.println(filename + ": slide results differ");
+                return;
+            }
+
+            int checksum = 0;
+            for(int i=0; i<WARMUP_ROUNDS; i++)
+            {
+                checksum += walkAll(config, figures, others) + slideAll(config, figures);
+            }
+            long start = System.nanoTime();
+            for(int i=0; i<TIMED_ROUNDS; i++)
+            {
+                checksum += walkAll(config, figures, others);
+            }
+            long walkTime = System.nanoTime() - start;
+            start = System.nanoTime();
+            for(int i=0; i<TIMED_ROUNDS; i++)
+            {
+                checksum += slideAll(config, figures);
+            }
+            long slideTime = System.nanoTime() - start;
+
+            double slides = (double) TIMED_ROUNDS * figures.length * 4;
+            System.out.printf("%s: walk %.1f ns/slide, bitmask %.1f ns/slide (checksum %d)%n",
+                    filename, walkTime / slides, slideTime / slides, checksum);
+        }
+    }
+}
@@ -5,7 +5,13 @@ import puzzles.lunarlanding.model.LunarLandingModel;
 import util.Coordinates;
 import util.Grid;
 import util.Observer;
+import util.ptui.ConsoleApplication;
 
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -16,6 +22,8 @@ import java.util.Scanner;
 public class LunarLandingPTUI implements Observer<LunarLandingModel, Object> {
 
     private LunarLandingModel model;
+    // True to print nothing, for replaying scripts
+    private final boolean quiet;
 
     /**
      * Creates a LunarLandingModel using a file, sets itself as an observer, displays the board and updates the PTUI
@@ -23,10 +31,37 @@ public class LunarLandingPTUI implements Observer<LunarLandingModel, Object> {
      */
     public LunarLandingPTUI(String filename)
     {
+        this(filename, false);
+    }
+
+    /**
+     * Creates a LunarLandingModel using a file. Unless quiet, it sets itself as an observer, displays the board and
+     * updates the PTUI
+     * @param filename the file name
+     * @param quiet true to print nothing, not even the board
+     */
+    public LunarLandingPTUI(String filename, boolean quiet)
+    {
+        this.quiet = quiet;
         this.model = new LunarLandingModel(filename);
-        this.model.addObserver(this);
-        displayBoard();
-        update(this.model, "File loaded");
+        if(!quiet)
+        {
+            this.model.addObserver(this);
+            displayBoard();
+            update(this.model, "File loaded");
+        }
+    }
+
+    /**
+     * Prints a line unless the PTUI is quiet
+     * @param line the line to print
+     */
+    private void print(Object line)
+    {
+        if(!this.quiet)
+        {
+            System.out.println(line);
+        }
     }
 
     /**
@@ -40,74 +75,84 @@ public class LunarLandingPTUI implements Observer<LunarLandingModel, Object> {
         {
             String line = in.nextLine();
             System.out.println(line);
-            String[] command = line.split("\\s+");
-            if(command.length > 0)
+            quit = !execute(line);
+        }
+    }
+
+    /**
+     * Runs one command on the model
+     * @param line the command and its arguments
+     * @return false if the command was quit
+     */
+    public boolean execute(String line)
+    {
+        String[] command = line.split("\\s+");
+        if(command.length > 0)
+        {
+            switch(command[0])
             {
-                switch(command[0])
-                {
-                    case "load":
-                        if(command.length != 2)
-                        {
-                            System.out.println("Illegal command");
-                            help();
-                        }else{
-                            this.model.load(command[1]);
-                            displayBoard();
-                        }
-                        break;
-                    case "reload":
-                        this.model.reload();
+                case "load":
+                    if(command.length != 2)
+                    {
+                        print("Illegal command");
+                        help();
+                    }else{
+                        this.model.load(command[1]);
                         displayBoard();
-                        break;
-                    case "choose":
-                        if(command.length != 3)
-                        {
-                            System.out.println("Illegal command");
-                            help();
-                        }else{
-                            Coordinates cords = new Coordinates(command[1], command[2]);
-                            this.model.choose(cords);
-                        }
-                        break;
-                    case "go":
-                        if(command.length != 2)
-                        {
-                            System.out.println("Illegal command");
-                            help();
-                        }else{
-                            LunarLandingConfig oldConfig = this.model.getCurrentConfig();
-                            this.model.go(command[1]);
-                            LunarLandingConfig newConfig = this.model.getCurrentConfig();
-                            if(!oldConfig.equals(newConfig))
-                            {
-                                displayBoard();
-                            }
-                        }
-                        break;
-                    case "hint":
+                    }
+                    break;
+                case "reload":
+                    this.model.reload();
+                    displayBoard();
+                    break;
+                case "choose":
+                    if(command.length != 3)
+                    {
+                        print("Illegal command");
+                        help();
+                    }else{
+                        Coordinates cords = new Coordinates(command[1], command[2]);
+                        this.model.choose(cords);
+                    }
+                    break;
+                case "go":
+                    if(command.length != 2)
+                    {
+                        print("Illegal command");
+                        help();
+                    }else{
                         LunarLandingConfig oldConfig = this.model.getCurrentConfig();
-                        this.model.hint();
+                        this.model.go(command[1]);
                         LunarLandingConfig newConfig = this.model.getCurrentConfig();
                         if(!oldConfig.equals(newConfig))
                         {
                             displayBoard();
                         }
-                        break;
-                    case "show":
+                    }
+                    break;
+                case "hint":
+                    LunarLandingConfig oldConfig = this.model.getCurrentConfig();
+                    this.model.hint();
+                    LunarLandingConfig newConfig = this.model.getCurrentConfig();
+                    if(!oldConfig.equals(newConfig))
+                    {
                         displayBoard();
-                        break;
-                    case "help":
-                        help();
-                        break;
-                    case "quit":
-                        quit = true;
-                        break;
-                    default:
-                        System.out.println("Illegal command");
-                        help();
-                }
+                    }
+                    break;
+                case "show":
+                    displayBoard();
+                    break;
+                case "help":
+                    help();
+                    break;
+                case "quit":
+                    return false;
+                default:
+                    print("Illegal command");
+                    help();
             }
         }
+        return true;
     }
 
     /**
@@ -115,6 +160,10 @@ public class LunarLandingPTUI implements Observer<LunarLandingModel, Object> {
      */
     public void help()
     {
+        if(this.quiet)
+        {
+            return;
+        }
         System.out.println("Legal commands are...");
         System.out.println("\t> help : Show all commands.");
         System.out.println("\t> reload filename: Load the most recent file again.");
@@ -131,7 +180,7 @@ public class LunarLandingPTUI implements Observer<LunarLandingModel, Object> {
      */
     public void displayBoard()
     {
-        System.out.println(this.model.getCurrentConfig());
+        print(this.model.getCurrentConfig());
     }
 
     /**
@@ -142,20 +191,33 @@ public class LunarLandingPTUI implements Observer<LunarLandingModel, Object> {
     public void update(LunarLandingModel lunarLandingModel, Object announcement){
         if(!announcement.toString().equals(""))
         {
-            System.out.println(announcement);
+            print(announcement);
         }
     }
 
     /**
-     * The main method to start the PTUI by loading a file.
+     * The main method to start the PTUI by loading a file, or with --replay, to run command scripts against many
+     * quiet PTUIs at once and report how fast the commands ran.
      *
-     * @param args the file name
+     * @param args the file name, or --replay file instances script...
+     * @throws IOException if a script cannot be read
      */
-    public static void main(String[] args)
+    public static void main(String[] args) throws IOException
     {
-        if(args.length != 1)
+        if(args.length >= 4 && args[0].equals("--replay"))
+        {
+            List<Path> scripts = new ArrayList<>();
+            for(int i=3; i<args.length; i++)
+            {
+                scripts.add(Path.of(args[i]));
+            }
+            ConsoleApplication.replay(() -> new LunarLandingPTUI(args[1], true)::execute, scripts,
+                    Integer.parseInt(args[2]), Runtime.getRuntime().availableProcessors(),
+                    new PrintWriter(System.out));
+        }
+        else if(args.length != 1)
         {
-            System.err.println("Usage: java LunarLandingPTUI file debug");
+            System.err.println("Usage: java LunarLandingPTUI file, or --replay file instances script...");
         }else{
             LunarLandingPTUI ptui = new LunarLandingPTUI(args[0]);
             ptui.run();
@@ -0,0 +1,142 @@
+package puzzles.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Solves many TipOver and LunarLanding files in one process and prints one JSON line per file.
+ * Each file is read on its own request thread, a virtual thread when the runtime has them,
+ * and its search runs on a pool sized to the number of cores.
+ * @author Eli Lurie
+ * November 2021
+ */
+public class BatchRunner {
+    private final ExecutorService requests;
+    private final ExecutorService solvers;
+
+    /**
+     * Creates a runner.
+     * @param requests executor that reads each file
+     * @param solvers executor that runs the searches, or null to search on the request thread
+     */
+    public BatchRunner(ExecutorService requests, ExecutorService solvers){
+        this.requests = requests;
+        this.solvers = solvers;
+    }
+
+    /**
+     * Tells which puzzle a file holds: TipOver files start with six numbers, LunarLanding files with four.
+     * @param text the file contents
+     * @return "tipover" or "lunarlanding"
+     */
+    static String kind(String text){
+        String firstLine = text.strip().lines().findFirst().orElse("");
+        return firstLine.split("\\s+").length == 6 ? "tipover" : "lunarlanding";
+    }
+
+    /**
+     * Reads the contents of a puzzle file.
+     * @param file the puzzle file
+     * @return the contents
+     * @throws IOException if the file cannot be read
+     */
+    String read(Path file) throws IOException {
+        return Files.readString(file);
+    }
+
+    /**
+     * Reads and solves one file.
+     * @param file the puzzle file
+     * @return a JSON line with the file name and the answer
+     * @throws Exception if the file cannot be read or solved
+     */
+    private String runOne(Path file) throws Exception {
+        String text = read(file);
+        String puzzle = kind(text);
+        String answer = solvers == null ? SolveService.solve(puzzle, text) :
+                solvers.submit(() -> SolveService.solve(puzzle, text)).get();
+        return "{\"file\":" + SolveService.quote(file.toString()) + ",\"answer\":" + answer + "}";
+    }
+
+    /**
+     * Solves every file and returns the answers in the same order as the files.
+     * @param files the puzzle files
+     * @return one JSON line per file
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public List<String> run(List<Path> files) throws InterruptedException {
+        List<Future<String>> futures = new ArrayList<>();
+        for(Path file : files){
+            futures.add(requests.submit(() -> runOne(file)));
+        }
+        List<String> lines = new ArrayList<>();
+        for(int i=0; i<files.size(); i++){
+            try{
+                lines.add(futures.get(i).get());
+            }
+            catch(ExecutionException ex){
+                lines.add("{\"file\":" + SolveService.quote(files.get(i).toString()) +
+                        ",\"error\":" + SolveService.quote(String.valueOf(ex.getCause())) + "}");
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Collects the puzzle files named on the command line, searching directories for .txt files
+     * and skipping PTUI command scripts ending in -in.txt.
+     * @param names files and directories
+     * @return the puzzle files in name order
+     */
+    static List<Path> puzzleFiles(List<String> names){
+        List<Path> files = new ArrayList<>();
+        for(String name : names){
+            File file = new File(name);
+            if(file.isDirectory()){
+                try(var walk = Files.walk(file.toPath())){
+                    walk.filter(path -> path.toString().endsWith(".txt") && !path.toString().endsWith("-in.txt"))
+                            .sorted().forEach(files::add);
+                }
+                catch(IOException ex){
+                    throw new UncheckedIOException(ex);
+                }
+            }
+            else{
+                files.add(file.toPath());
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Solves the puzzle files named on the command line.
+     * @param args files or directories
+     * @throws InterruptedException if interrupted while solving
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if(args.length < 1){
+            System.out.println("Usage: java BatchRunner file-or-directory...");
+        }
+        else{
+            ExecutorService requests = RequestExecutors.perRequest();
+            ExecutorService solvers = RequestExecutors.cpuBound(Runtime.getRuntime().availableProcessors(),
+                    Integer.MAX_VALUE);
+            try{
+                new BatchRunner(requests, solvers).run(puzzleFiles(Arrays.asList(args))).forEach(System.out::println);
+            }
+            finally{
+                requests.shutdown();
+                solvers.shutdown();
+            }
+        }
+    }
+}
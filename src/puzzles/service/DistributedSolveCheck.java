@@ -0,0 +1,97 @@
+package puzzles.service;
+
+import puzzles.lunarlanding.model.LunarLandingCodec;
+import puzzles.lunarlanding.model.LunarLandingConfig;
+import puzzles.tipover.model.TipOverCodec;
+import puzzles.tipover.model.TipOverConfig;
+import solver.Configuration;
+import solver.SearchOptions;
+import solver.SearchResult;
+import solver.SearchStrategies;
+import solver.Solver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+/**
+ * Checks that the distributed strategy gives the same answer as the serial breadth first search, for every
+ * TipOver and LunarLanding file given: the same configuration counts and the same path, written the way the
+ * launchers write them. Files that are not puzzles, such as PTUI scripts, are skipped.
+ * @author Eli Lurie
+ * November 2021
+ */
+public class DistributedSolveCheck {
+    /**
+     * Solves a puzzle with a strategy and writes the answer the way the launchers do
+     * @param puzzle "tipover" or "lunarlanding"
+     * @param text the file contents
+     * @param options the strategy and its options
+     * @return the launcher's output
+     * @throws IOException if a worker process fails
+     */
+    private static String solve(String puzzle, String text, SearchOptions options) throws IOException {
+        Configuration initialConfig;
+        if(puzzle.equals("tipover")){
+            initialConfig = new TipOverConfig(new Scanner(text));
+            options.setCodec(new TipOverCodec());
+        }
+        else{
+            initialConfig = new LunarLandingConfig(new Scanner(text), false);
+            options.setCodec(new LunarLandingCodec(false));
+        }
+        // the same as Solver.solve: boards that are certainly unsolvable are not searched at all
+        SearchResult result = initialConfig.mayBeSolvable() ?
+                SearchStrategies.get(options.getStrategy()).search(initialConfig, options) :
+                new SearchResult(0, 0, Collections.singletonMap(initialConfig, null), null);
+        StringBuilder answer = new StringBuilder();
+        Solver.display(result.getTotalConfigs(), result.getUniqueConfigs(), result.getPredecessors(),
+                result.getSolution(), answer);
+        return answer.toString();
+    }
+
+    /**
+     * Solves every file with bfs and with the distributed strategy, and prints the files whose answers differ.
+     * Exits with status 1 if any do.
+     * @param args optionally --threads n for the number of worker processes, then the file names
+     * @throws IOException if a file cannot be read or a worker process fails
+     */
+    public static void main(String[] args) throws IOException {
+        SearchOptions parsed = SearchOptions.tryParse(args);
+        if(parsed == null || parsed.getArguments().isEmpty()){
+            System.err.println("Usage: java DistributedSolveCheck [--threads n] file...");
+            return;
+        }
+        String threads = Integer.toString(parsed.getThreads());
+        // every search starts from an empty memo, like a launcher run in its own process
+        TipOverConfig.getSharedMemo().setBudget(0);
+        int checked = 0;
+        int mismatches = 0;
+        for(String filename : parsed.getArguments()){
+            String text = Files.readString(Path.of(filename));
+            String puzzle = BatchRunner.kind(text);
+            String serial;
+            try{
+                serial = solve(puzzle, text, SearchOptions.parse(new String[]{"--strategy", "bfs"}));
+            }
+            catch(IllegalArgumentException | NoSuchElementException ex){
+                System.out.println(filename + ": skipped, not a puzzle");
+                continue;
+            }
+            String distributed = solve(puzzle, text,
+                    SearchOptions.parse(new String[]{"--strategy", "distributed", "--threads", threads}));
+            checked++;
+            if(!distributed.equals(serial)){
+                System.err.println(filename + ": distributed answer differs from bfs");
+                mismatches++;
+            }
+        }
+        System.out.printf("%d files on %s workers: %d mismatches%n", checked, threads, mismatches);
+        if(mismatches > 0){
+            System.exit(1);
+        }
+    }
+}
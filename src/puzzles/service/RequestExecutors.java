@@ -0,0 +1,78 @@
+package puzzles.service;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The executors used by the solving front ends. Each request gets its own cheap thread for reading
+ * and writing, while the breadth first searches run on a pool no bigger than the number of cores,
+ * so requests blocked on files or sockets never hold up a search.
+ * @author Eli Lurie
+ * November 2021
+ */
+final class RequestExecutors {
+    private static final Method VIRTUAL_PER_TASK = findVirtualPerTask();
+
+    /**
+     * Not used, this class only has static methods.
+     */
+    private RequestExecutors(){
+    }
+
+    /**
+     * Looks up Executors.newVirtualThreadPerTaskExecutor, which only exists on runtimes with virtual threads.
+     * @return the method, or null if this runtime cannot create virtual threads
+     */
+    private static Method findVirtualPerTask(){
+        try{
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ((ExecutorService) method.invoke(null)).shutdown();
+            return method;
+        }
+        catch(ReflectiveOperationException | RuntimeException ex){
+            return null;
+        }
+    }
+
+    /**
+     * Tells whether requests run on virtual threads.
+     * @return true if this runtime has virtual threads
+     */
+    static boolean virtualThreads(){
+        return VIRTUAL_PER_TASK != null;
+    }
+
+    /**
+     * Creates an executor that starts a new thread for every request: a virtual thread when the runtime
+     * has them, otherwise a cached platform thread.
+     * @return the executor
+     */
+    static ExecutorService perRequest(){
+        if(VIRTUAL_PER_TASK != null){
+            try{
+                return (ExecutorService) VIRTUAL_PER_TASK.invoke(null);
+            }
+            catch(ReflectiveOperationException ex){
+                // fall through to platform threads
+            }
+        }
+        return Executors.newCachedThreadPool();
+    }
+
+    /**
+     * Creates the pool that runs the searches.
+     * @param threads number of search threads, normally the number of cores
+     * @param queueSize number of searches that may wait for a thread before new ones are rejected,
+     *                  or Integer.MAX_VALUE for no limit
+     * @return the pool
+     */
+    static ThreadPoolExecutor cpuBound(int threads, int queueSize){
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                queueSize == Integer.MAX_VALUE ? new LinkedBlockingQueue<>() : new ArrayBlockingQueue<>(queueSize));
+    }
+}
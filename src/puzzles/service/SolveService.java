@@ -0,0 +1,412 @@
+package puzzles.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import puzzles.lunarlanding.model.LunarLandingConfig;
+import puzzles.tipover.model.TipOverConfig;
+import solver.ArithmeticSolver;
+import solver.Configuration;
+import solver.Move;
+import solver.SearchLimitException;
+import solver.SearchOptions;
+import solver.SearchResult;
+import solver.SearchStrategies;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A long-running HTTP service that solves puzzles, so callers do not pay JVM startup for every solve.
+ * It only listens on the loopback address.
+ * <br><br>
+ * A request is a POST to /solve/tipover, /solve/lunarlanding, /solve/clock or /solve/water. The body is
+ * the puzzle file contents for TipOver and LunarLanding, "hours start end" for the clock, and
+ * "amount bucket1 bucket2 ..." for water, the same as the launchers' arguments. An optional
+ * deadline=milliseconds query parameter overrides the default deadline.
+ * <br><br>
+ * The response is a JSON object with the path from the start to the solution. For TipOver and LunarLanding
+ * that is the starting board and the steps, each a short move such as "tip north" or "E 1 2 north", rather
+ * than every board along the way. Identical requests that
+ * arrive while one is being solved wait for that solve, and finished answers are kept in a cache.
+ * Each request is handled on its own virtual thread when the runtime has them, while solving runs on
+ * a fixed pool of workers with a bounded queue; when the queue is full the service
+ * answers 503, and when the deadline passes it answers 504 while the solve finishes in the background
+ * and is cached for the next request. A search is given the longer of the request's deadline and the default
+ * one, and is stopped with a 504 when it runs past that. A puzzle that cannot be read, such as one with
+ * coordinates off its board, is answered with 400, and any other failure with 500. TipOver searches also
+ * share a memo of the shortest solutions found, so a board asked about again at a later point of play is
+ * answered from the memo instead of searched.
+ * @author Eli Lurie
+ * November 2021
+ */
+public class SolveService {
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final ThreadPoolExecutor workers;
+    private final Map<String, CompletableFuture<String>> inFlight;
+    private final Map<String, String> cache;
+    private final long defaultDeadline;
+
+    /**
+     * Creates the service. It does not accept requests until {@link #start()} is called.
+     * @param port port to listen on, or 0 for any free port
+     * @param threads number of solver workers
+     * @param queueSize number of solves that may wait for a worker
+     * @param cacheSize number of answers kept in the cache
+     * @param defaultDeadline milliseconds a request waits for its answer when it does not give a deadline
+     * @throws IOException if the port cannot be bound
+     */
+    public SolveService(int port, int threads, int queueSize, int cacheSize, long defaultDeadline) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.handlers = RequestExecutors.perRequest();
+        this.workers = RequestExecutors.cpuBound(threads, queueSize);
+        this.inFlight = new ConcurrentHashMap<>();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest){
+                return size() > cacheSize;
+            }
+        };
+        this.defaultDeadline = defaultDeadline;
+        server.createContext("/solve/", this::handle);
+        server.setExecutor(handlers);
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start(){
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests and shuts down the worker threads.
+     */
+    public void stop(){
+        server.stop(0);
+        handlers.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Returns the port the service is listening on.
+     * @return port
+     */
+    public int getPort(){
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Answers one HTTP request.
+     * @param exchange the request and its response
+     * @throws IOException if the response cannot be sent
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try(exchange){
+            if(!exchange.getRequestMethod().equals("POST")){
+                send(exchange, 405, error("Use POST"));
+                return;
+            }
+            String puzzle = exchange.getRequestURI().getPath().substring("/solve/".length());
+            if(!List.of("tipover", "lunarlanding", "clock", "water").contains(puzzle)){
+                send(exchange, 404, error("Unknown puzzle " + puzzle));
+                return;
+            }
+            long deadline = defaultDeadline;
+            String query = exchange.getRequestURI().getQuery();
+            if(query != null && query.startsWith("deadline=")){
+                try{
+                    deadline = Long.parseLong(query.substring("deadline=".length()));
+                }
+                catch(NumberFormatException ex){
+                    send(exchange, 400, error("Bad deadline"));
+                    return;
+                }
+            }
+            String body;
+            try(InputStream in = exchange.getRequestBody()){
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            try{
+                send(exchange, 200, answer(puzzle, body, deadline));
+            }
+            catch(TimeoutException ex){
+                send(exchange, 504, error("Deadline of " + deadline + " ms passed"));
+            }
+            catch(RejectedExecutionException ex){
+                send(exchange, 503, error("Too many requests"));
+            }
+            catch(SearchLimitException ex){
+                send(exchange, 504, error(ex.getMessage()));
+            }
+            catch(IllegalArgumentException | NoSuchElementException ex){
+                send(exchange, 400, error("Could not read the puzzle" + (ex.getMessage() == null ? "" : ": " + ex.getMessage())));
+            }
+            catch(RuntimeException ex){
+                send(exchange, 500, error("Could not solve the puzzle: " + ex));
+            }
+        }
+    }
+
+    /**
+     * Returns the answer to a puzzle from the cache, from an identical solve already running,
+     * or from a new solve on the worker pool.
+     * @param puzzle name of the puzzle
+     * @param body puzzle description
+     * @param deadline milliseconds to wait for the answer
+     * @return the JSON answer
+     * @throws TimeoutException if the deadline passes first
+     * @throws SearchLimitException if the search itself runs out of time
+     */
+    String answer(String puzzle, String body, long deadline) throws TimeoutException {
+        String key = puzzle + '\n' + body.strip();
+        String cached;
+        synchronized(cache){
+            cached = cache.get(key);
+        }
+        if(cached != null){
+            return cached;
+        }
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> running = inFlight.putIfAbsent(key, created);
+        if(running == null){
+            running = created;
+            try{
+                workers.execute(() -> {
+                    try{
+                        String result = solve(puzzle, body, Math.max(1, Math.max(deadline, defaultDeadline)));
+                        synchronized(cache){
+                            cache.put(key, result);
+                        }
+                        created.complete(result);
+                    }
+                    catch(RuntimeException ex){
+                        created.completeExceptionally(ex);
+                    }
+                    finally{
+                        inFlight.remove(key, created);
+                    }
+                });
+            }
+            catch(RejectedExecutionException ex){
+                inFlight.remove(key, created);
+                throw ex;
+            }
+        }
+        try{
+            return running.get(deadline, TimeUnit.MILLISECONDS);
+        }
+        catch(InterruptedException ex){
+            Thread.currentThread().interrupt();
+            throw new TimeoutException();
+        }
+        catch(ExecutionException ex){
+            if(ex.getCause() instanceof RuntimeException cause){
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * Solves a puzzle, searching for as long as it takes.
+     * @param puzzle name of the puzzle
+     * @param body puzzle description
+     * @return the JSON answer
+     * @throws IllegalArgumentException if the puzzle description is bad
+     */
+    static String solve(String puzzle, String body){
+        return solve(puzzle, body, 0);
+    }
+
+    /**
+     * Solves a puzzle.
+     * @param puzzle name of the puzzle
+     * @param body puzzle description
+     * @param timeout milliseconds a TipOver or LunarLanding search may run, or 0 for no limit
+     * @return the JSON answer
+     * @throws IllegalArgumentException if the puzzle description is bad
+     * @throws SearchLimitException if the search runs out of time
+     */
+    static String solve(String puzzle, String body, long timeout){
+        StringBuilder json = new StringBuilder("{\"puzzle\":\"").append(puzzle).append('"');
+        switch(puzzle){
+            case "tipover" -> appendSearch(json, search(new TipOverConfig(new Scanner(body)), timeout));
+            case "lunarlanding" -> appendSearch(json, search(new LunarLandingConfig(new Scanner(body), false), timeout));
+            case "clock" -> {
+                int[] numbers = numbers(body);
+                if(numbers.length != 3 || numbers[0] < 1){
+                    throw new IllegalArgumentException("Expected hours start end");
+                }
+                int[] path = ArithmeticSolver.clockPath(numbers[0], numbers[1], numbers[2]);
+                json.append(",\"solved\":true,\"moves\":").append(path.length - 1).append(",\"path\":[");
+                for(int i=0; i<path.length; i++){
+                    json.append(i == 0 ? "" : ",").append('"').append(path[i]).append('"');
+                }
+                json.append(']');
+            }
+            default -> {
+                int[] numbers = numbers(body);
+                if(numbers.length < 2){
+                    throw new IllegalArgumentException("Expected amount bucket1 bucket2 ...");
+                }
+                List<int[]> path = ArithmeticSolver.waterPath(numbers[0], Arrays.copyOfRange(numbers, 1, numbers.length));
+                json.append(",\"solved\":").append(path != null);
+                if(path != null){
+                    json.append(",\"moves\":").append(path.size() - 1).append(",\"path\":[");
+                    for(int i=0; i<path.size(); i++){
+                        json.append(i == 0 ? "" : ",").append('"').append(Arrays.toString(path.get(i))).append('"');
+                    }
+                    json.append(']');
+                }
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Searches breadth first, giving up once the time runs out.
+     * @param initialConfig starting configuration
+     * @param timeout milliseconds the search may run, or 0 for no limit
+     * @return the search result
+     * @throws SearchLimitException if the search runs out of time
+     */
+    private static SearchResult search(Configuration initialConfig, long timeout){
+        String[] limits = timeout == 0 ? new String[0] :
+                new String[]{"--timeout", Long.toString(Math.max(1, Math.min(timeout, Integer.MAX_VALUE)))};
+        SearchOptions options = SearchOptions.parse(limits);
+        return SearchStrategies.get("bfs").search(initialConfig, options);
+    }
+
+    /**
+     * Adds the outcome of a search to a JSON object being built.
+     * @param json the object so far
+     * @param result the search result
+     */
+    private static void appendSearch(StringBuilder json, SearchResult result){
+        json.append(",\"solved\":").append(result.isSolved())
+                .append(",\"totalConfigs\":").append(result.getTotalConfigs())
+                .append(",\"uniqueConfigs\":").append(result.getUniqueConfigs());
+        if(result.isSolved()){
+            List<Configuration> path = result.getPath();
+            List<Move> moves = result.getMoves();
+            json.append(",\"moves\":").append(moves.size());
+            if(moves.contains(null)){
+                // the moves were not kept, so every board is sent instead
+                json.append(",\"path\":[");
+                for(int i=0; i<path.size(); i++){
+                    json.append(i == 0 ? "" : ",").append(quote(path.get(i).toString()));
+                }
+            }
+            else{
+                json.append(",\"start\":").append(quote(path.get(0).toString())).append(",\"steps\":[");
+                for(int i=0; i<moves.size(); i++){
+                    json.append(i == 0 ? "" : ",").append(quote(moves.get(i).toString()));
+                }
+            }
+            json.append(']');
+        }
+    }
+
+    /**
+     * Reads whitespace separated integers.
+     * @param body text to read
+     * @return the integers
+     */
+    private static int[] numbers(String body){
+        String stripped = body.strip();
+        if(stripped.isEmpty()){
+            return new int[0];
+        }
+        return Arrays.stream(stripped.split("\\s+")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    /**
+     * Makes a JSON string literal.
+     * @param text the string
+     * @return the quoted and escaped string
+     */
+    static String quote(String text){
+        StringBuilder quoted = new StringBuilder("\"");
+        for(char c : text.toCharArray()){
+            switch(c){
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if(c < 0x20){
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    }
+                    else{
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * Makes a JSON error object.
+     * @param message what went wrong
+     * @return the JSON text
+     */
+    private static String error(String message){
+        return "{\"error\":" + quote(message) + "}";
+    }
+
+    /**
+     * Sends a JSON response.
+     * @param exchange the request and its response
+     * @param status HTTP status code
+     * @param json the response body
+     * @throws IOException if the response cannot be sent
+     */
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try(OutputStream out = exchange.getResponseBody()){
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Runs the service until the process is stopped.
+     * @param args optionally the port, the number of workers, the default deadline in milliseconds, and the
+     *             megabytes of TipOver solutions remembered between requests
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long deadline = args.length > 2 ? Long.parseLong(args[2]) : 10_000;
+        if(args.length > 3){
+            TipOverConfig.getSharedMemo().setBudget(Math.multiplyExact(Long.parseLong(args[3]), 1L << 20));
+        }
+        SolveService service = new SolveService(port, threads, 256, 1024, deadline);
+        service.start();
+        System.out.println("Solving on http://localhost:" + service.getPort() + "/solve/{tipover|lunarlanding|clock|water}" +
+                (RequestExecutors.virtualThreads() ? " with virtual threads" : ""));
+    }
+}
@@ -0,0 +1,92 @@
+package puzzles.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Compares the throughput of the batch runner with per-request threads and a core-sized search pool
+ * against a fixed pool of platform threads that reads and solves each file on the same thread.
+ * Every request waits a simulated I/O delay before reading its file, like a slow disk or client would.
+ * @author Eli Lurie
+ * November 2021
+ */
+public class ThroughputBenchmark {
+
+    /**
+     * Creates a batch runner whose requests first wait as if blocked on I/O.
+     * @param requests executor that handles each request
+     * @param solvers executor that runs the searches, or null to search on the request thread
+     * @param delay milliseconds each request waits before reading its file
+     * @return the runner
+     */
+    private static BatchRunner delayed(ExecutorService requests, ExecutorService solvers, long delay){
+        return new BatchRunner(requests, solvers){
+            @Override
+            String read(Path file) throws IOException {
+                try{
+                    Thread.sleep(delay);
+                }
+                catch(InterruptedException ex){
+                    Thread.currentThread().interrupt();
+                }
+                return super.read(file);
+            }
+        };
+    }
+
+    /**
+     * Runs one batch of requests and prints how many requests were answered per second.
+     * @param name label for the printed line
+     * @param runner the batch runner to time
+     * @param files the request files
+     * @throws InterruptedException if interrupted while solving
+     */
+    private static void time(String name, BatchRunner runner, List<Path> files) throws InterruptedException {
+        long start = System.nanoTime();
+        List<String> answers = runner.run(files);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-40s %6d requests %8.1f requests/s%n", name, answers.size(), answers.size() / seconds);
+    }
+
+    /**
+     * Runs the benchmark.
+     * @param args puzzle files or directories, the number of times each is requested,
+     *             and the simulated I/O delay in milliseconds
+     * @throws InterruptedException if interrupted while solving
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if(args.length < 3){
+            System.out.println("Usage: java ThroughputBenchmark file-or-directory... repeats delayMillis");
+            return;
+        }
+        int repeats = Integer.parseInt(args[args.length - 2]);
+        long delay = Long.parseLong(args[args.length - 1]);
+        List<Path> once = BatchRunner.puzzleFiles(List.of(args).subList(0, args.length - 2));
+        List<Path> files = new ArrayList<>();
+        for(int i=0; i<repeats; i++){
+            files.addAll(once);
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        ExecutorService perRequest = RequestExecutors.perRequest();
+        ExecutorService solvers = RequestExecutors.cpuBound(cores, Integer.MAX_VALUE);
+        ExecutorService platform = Executors.newFixedThreadPool(cores);
+        try{
+            for(int round=0; round<2; round++){
+                String warm = round == 0 ? " (warm up)" : "";
+                time((RequestExecutors.virtualThreads() ? "virtual" : "cached platform") + " per request" + warm,
+                        delayed(perRequest, solvers, delay), files);
+                time("fixed platform pool of " + cores + warm, delayed(platform, null, delay), files);
+            }
+        }
+        finally{
+            perRequest.shutdown();
+            solvers.shutdown();
+            platform.shutdown();
+        }
+    }
+}
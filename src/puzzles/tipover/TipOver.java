@@ -1,9 +1,9 @@
 package puzzles.tipover;
 
+import puzzles.tipover.model.TipOverCodec;
 import puzzles.tipover.model.TipOverConfig;
+import solver.SearchOptions;
 import solver.Solver;
-import util.Coordinates;
-import util.Grid;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -18,26 +18,21 @@ public class TipOver {
 
     /**
      * Creates a new tip over configuration and inputs it to the solver to run.
-     * @param args file name
+     * @param args file name, followed by any of the search options
+     * @throws FileNotFoundException if the file is not found
      */
     public static void main( String[] args ) throws FileNotFoundException {
-        if(args.length < 1){
-            System.out.println("Usage: java TipOver filename");
+        SearchOptions options = SearchOptions.tryParse(args);
+        if(options == null || options.getArguments().size() != 1){
+            System.out.println("Usage: java TipOver filename " + SearchOptions.usage());
         }
         else{
-            Scanner scanner = new Scanner(new File(args[0]));
-            int height = scanner.nextInt();
-            int width = scanner.nextInt();
-            Coordinates position = new Coordinates(scanner.nextInt(), scanner.nextInt());
-            Coordinates goal = new Coordinates(scanner.nextInt(), scanner.nextInt());
-            Grid<Integer> board = new Grid<>(0, height, width);
-            for(int i=0; i<height; i++){
-                for(int j=0; j<width; j++){
-                    board.set(scanner.nextInt(), i, j);
-                }
+            TipOverConfig initialConfig;
+            try(Scanner scanner = new Scanner(new File(options.getArguments().get(0)))){
+                initialConfig = new TipOverConfig(scanner);
             }
-            TipOverConfig initialConfig = new TipOverConfig(board, position, goal);
-            Solver.solve(initialConfig);
+            options.setCodec(new TipOverCodec());
+            Solver.solve(initialConfig, options);
         }
     }
 }
@@ -0,0 +1,103 @@
+package puzzles.tipover.gui;
+
+import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import util.Coordinates;
+import util.Grid;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Draws the tip over board on one canvas instead of one label per cell, for boards too big for the labels.
+ * Each kind of cell is drawn once into a sprite, and a redraw only copies sprites into the cells that changed
+ * since the last one.
+ * @author Eli Lurie
+ * November 2021
+ */
+class TipOverCanvas extends Canvas {
+    static final int CELL = 40;
+    private static final int TIPPER = 1;
+    private static final int GOAL = 2;
+
+    private final Map<Integer, Image> sprites = new HashMap<>();
+    // sprite key drawn in each cell, by row and column, or -1 if the cell needs drawing
+    private int[][] drawn = new int[0][0];
+
+    /**
+     * Draws the cells of the board that changed since the last draw.
+     * @param board heights of the towers
+     * @param tipper where the tipper is
+     * @param goal the goal
+     * @return true if the canvas changed size
+     */
+    boolean draw(Grid<Integer> board, Coordinates tipper, Coordinates goal){
+        boolean resized = drawn.length != board.getNRows() || drawn[0].length != board.getNCols();
+        if(resized){
+            setWidth(board.getNCols() * CELL);
+            setHeight(board.getNRows() * CELL);
+            drawn = new int[board.getNRows()][board.getNCols()];
+            for(int[] row : drawn){
+                Arrays.fill(row, -1);
+            }
+        }
+        GraphicsContext gc = getGraphicsContext2D();
+        for(int r=0; r<board.getNRows(); r++){
+            for(int c=0; c<board.getNCols(); c++){
+                int key = board.get(r, c) << 2;
+                if(tipper.row() == r && tipper.col() == c){
+                    key |= TIPPER;
+                }
+                if(goal.row() == r && goal.col() == c){
+                    key |= GOAL;
+                }
+                if(drawn[r][c] != key){
+                    gc.drawImage(sprite(key), c * CELL, r * CELL);
+                    drawn[r][c] = key;
+                }
+            }
+        }
+        return resized;
+    }
+
+    /**
+     * Returns the sprite of a kind of cell, drawing it the first time it is needed.
+     * @param key height of the tower shifted left 2, with the tipper and goal bits
+     * @return the sprite
+     */
+    private Image sprite(int key){
+        return sprites.computeIfAbsent(key, k -> {
+            Canvas canvas = new Canvas(CELL, CELL);
+            GraphicsContext gc = canvas.getGraphicsContext2D();
+            gc.setFill((k & TIPPER) != 0 ? Color.RED : Color.WHITE);
+            gc.fillRect(0, 0, CELL, CELL);
+            if((k & GOAL) != 0){
+                gc.setStroke(Color.RED);
+                gc.setLineWidth(4);
+                gc.strokeRect(2, 2, CELL - 4, CELL - 4);
+            }
+            else{
+                gc.setStroke(Color.BLACK);
+                gc.setLineWidth(1);
+                gc.strokeRect(0.5, 0.5, CELL - 1, CELL - 1);
+            }
+            int height = k >> 2;
+            if(height != 0){
+                gc.setFill(Color.BLACK);
+                gc.setFont(Font.font("Courier", 20));
+                gc.setTextAlign(TextAlignment.CENTER);
+                gc.setTextBaseline(VPos.CENTER);
+                gc.fillText(Integer.toString(height), CELL / 2.0, CELL / 2.0);
+            }
+            return canvas.snapshot(new SnapshotParameters(), new WritableImage(CELL, CELL));
+        });
+    }
+}
@@ -1,6 +1,7 @@
 package puzzles.tipover.gui;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
@@ -10,6 +11,8 @@ import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import puzzles.gui.SolutionPlayer;
+import puzzles.tipover.model.TipOverConfig;
 import puzzles.tipover.model.TipOverModel;
 import util.Coordinates;
 import util.Grid;
@@ -20,7 +23,8 @@ import java.util.List;
 import java.util.NoSuchElementException;
 
 /**
- * The GUI to display the Tip Over game.
+ * The GUI to display the Tip Over game. Started with --canvas after the file name, it draws the board on a
+ * {@link TipOverCanvas} instead of one label per cell, for large boards.
  * @author Eli Lurie
  * November 2021
  */
@@ -29,7 +33,10 @@ public class TipOverGUI extends Application implements Observer< TipOverModel, O
     private Label[][] labels;
     private Label messages;
     private GridPane theGridPane;
+    private TipOverCanvas canvas;
+    private boolean useCanvas;
     private Stage thisStage;
+    private SolutionPlayer<TipOverConfig> player;
 
     /**
      * Creates a new model and adds itself as an observer.
@@ -38,7 +45,8 @@ public class TipOverGUI extends Application implements Observer< TipOverModel, O
     public void init() {
         List<String> parameters = getParameters().getRaw();
         this.model = new TipOverModel(parameters.get(0));
-        this.model.addObserver(this);
+        this.useCanvas = parameters.contains("--canvas");
+        this.model.addObserver(this, Platform::runLater);
     }
 
     /**
@@ -50,8 +58,15 @@ public class TipOverGUI extends Application implements Observer< TipOverModel, O
         thisStage = new Stage();
         BorderPane borderPane = new BorderPane();
 
-        theGridPane = createBoard();
-        borderPane.setCenter(theGridPane);
+        if(useCanvas){
+            canvas = new TipOverCanvas();
+            canvas.draw(model.getBoard(), model.getCords(), model.getGoal());
+            borderPane.setCenter(canvas);
+        }
+        else{
+            theGridPane = createBoard();
+            borderPane.setCenter(theGridPane);
+        }
 
         messages = new Label();
         messages.setText("");
@@ -129,7 +144,7 @@ public class TipOverGUI extends Application implements Observer< TipOverModel, O
     }
 
     /**
-     * Creats a VBox containing the buttons to move, load, reload, and get a hint.
+     * Creats a VBox containing the buttons to move, load, reload, get a hint, and solve and play the solution.
      * @return VBox of buttons
      */
     public VBox createButtons(){
@@ -149,10 +164,15 @@ public class TipOverGUI extends Application implements Observer< TipOverModel, O
         gridPane.add(south, 1, 2);
         vBox.getChildren().add(gridPane);
 
+        if(player == null){
+            player = new SolutionPlayer<>(model::solve, model::showStep);
+        }
+
         Button hint = new Button("Hint");
         hint.setOnAction(event -> model.getHint());
         Button load = new Button("Load");
         load.setOnAction(event -> {
+            player.stop();
             chooseFile();
             thisStage.hide();
             thisStage = new Stage();
@@ -160,12 +180,13 @@ public class TipOverGUI extends Application implements Observer< TipOverModel, O
         });
         Button reload = new Button("Reload");
         reload.setOnAction(event -> {
+            player.stop();
             model.reloadFile();
             thisStage.hide();
             thisStage = new Stage();
             start(thisStage);
         });
-        vBox.getChildren().addAll(hint, load, reload);
+        vBox.getChildren().addAll(hint, load, reload, player.getControls());
         return vBox;
     }
 
@@ -201,18 +222,23 @@ public class TipOverGUI extends Application implements Observer< TipOverModel, O
         else{
             messages.setText("Make a move, get a hint, or load a file");
         }
-        if(model.getBoard().getNCols() == labels.length && model.getBoard().getNRows() == labels[0].length) {
+        if(canvas != null){
+            if(canvas.draw(model.getBoard(), model.getCords(), model.getGoal())){
+                thisStage.sizeToScene();
+            }
+        }
+        else if(model.getBoard().getNCols() == labels.length && model.getBoard().getNRows() == labels[0].length) {
             setLabels();
         }
     }
 
     /**
      * Used to initiate the GUI
-     * @param args filename
+     * @param args filename, then --canvas to draw the board on a canvas
      */
     public static void main( String[] args ) {
-        if(args.length != 1){
-            System.out.println("Invalid arguments");
+        if(args.length != 1 && !(args.length == 2 && args[1].equals("--canvas"))){
+            System.out.println("Usage: java TipOverGUI file [--canvas]");
         }
         else {
             Application.launch(args);
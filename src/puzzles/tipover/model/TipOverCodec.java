@@ -0,0 +1,46 @@
+package puzzles.tipover.model;
+
+import solver.Configuration;
+import solver.ConfigurationCodec;
+import util.Grid;
+
+import java.util.Scanner;
+
+/**
+ * Writes TipOver configurations in the board file format, so they can be sent to another process.
+ * @author Eli Lurie
+ * November 2021
+ */
+public class TipOverCodec implements ConfigurationCodec {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Writes a configuration in the TipOver file format.
+     * @param config a TipOverConfig
+     * @return the file contents
+     */
+    public String encode(Configuration config){
+        TipOverConfig tipOver = (TipOverConfig) config;
+        Grid<Integer> board = tipOver.getBoard();
+        StringBuilder text = new StringBuilder();
+        text.append(board.getNRows()).append(' ').append(board.getNCols()).append(' ')
+                .append(tipOver.getCords().row()).append(' ').append(tipOver.getCords().col()).append(' ')
+                .append(tipOver.getGoal().row()).append(' ').append(tipOver.getGoal().col()).append('\n');
+        for(int i=0; i<board.getNRows(); i++){
+            for(int j=0; j<board.getNCols(); j++){
+                text.append(j == 0 ? "" : " ").append(board.get(i, j));
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Reads a configuration in the TipOver file format.
+     * @param encoding the file contents
+     * @return the configuration
+     */
+    public Configuration decode(String encoding){
+        return new TipOverConfig(new Scanner(encoding));
+    }
+}
@@ -1,21 +1,33 @@
 package puzzles.tipover.model;
 
 import solver.Configuration;
+import solver.FingerprintedConfiguration;
+import solver.HeuristicConfiguration;
+import solver.MemoizedConfiguration;
+import solver.SolutionMemo;
 import util.Coordinates;
 import util.Grid;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Scanner;
 
 /**
  * A configuration of the tip over board.
  * @author Eli Lurie
  * November 2021
  */
-public class TipOverConfig implements Configuration {
+public class TipOverConfig implements HeuristicConfiguration, FingerprintedConfiguration, MemoizedConfiguration {
+    // shortest solutions found by every search in this process, 16 MB unless changed with getSharedMemo
+    private static final SolutionMemo MEMO = new SolutionMemo(16L << 20);
+
     private Grid<Integer> board;
     private Coordinates cords;
     private final Coordinates goal;
+    // the move that made this configuration, if getNeighbors made it
+    private TipOverMove move;
 
     /**
      * Creates a new configuration.
@@ -29,23 +41,61 @@ public class TipOverConfig implements Configuration {
         this.goal = goal;
     }
 
+    /**
+     * Creates the starting configuration by reading a board in the file format:
+     * height, width, starting coordinates and goal coordinates, then every tower height.
+     * @param scanner scanner to read from
+     * @throws IllegalArgumentException if the board is empty, or the tipper or goal is off it
+     */
+    public TipOverConfig(Scanner scanner){
+        int height = scanner.nextInt();
+        int width = scanner.nextInt();
+        if(height < 1 || width < 1){
+            throw new IllegalArgumentException("The board must have at least one row and column");
+        }
+        this.cords = onBoard(new Coordinates(scanner.nextInt(), scanner.nextInt()), height, width);
+        this.goal = onBoard(new Coordinates(scanner.nextInt(), scanner.nextInt()), height, width);
+        this.board = new Grid<>(0, height, width, true);
+        for(int i=0; i<height; i++){
+            for(int j=0; j<width; j++){
+                board.set(scanner.nextInt(), i, j);
+            }
+        }
+    }
+
+    /**
+     * Checks that coordinates read from a board file are on the board.
+     * @param cords the coordinates
+     * @param height number of rows
+     * @param width number of columns
+     * @return the same coordinates
+     * @throws IllegalArgumentException if they are off the board
+     */
+    private static Coordinates onBoard(Coordinates cords, int height, int width){
+        if(cords.row() < 0 || cords.row() >= height || cords.col() < 0 || cords.col() >= width){
+            throw new IllegalArgumentException(cords + " is not on the " + height + "x" + width + " board");
+        }
+        return cords;
+    }
+
     /**
      * Returns a list of all the possible neighbors of the current configuration.
      * @return list of neighbors
      */
     public List<Configuration> getNeighbors(){
         List<Configuration> toReturn = new ArrayList<>();
-        for(Coordinates.Direction d : Coordinates.CARDINAL_NEIGHBORS){
+        for(Coordinates.Direction d : Coordinates.cardinalNeighbors()){
             Coordinates newCords = cords.sum(d.coords);
             if(board.legalCoords(newCords) && board.get(newCords) != 0){
                 TipOverConfig newConfig = new TipOverConfig(board, newCords, goal);
+                newConfig.move = new TipOverMove(d, false);
                 toReturn.add(newConfig);
             }
         }
 
         int value = board.get(cords);
         if(value != 0 && value != 1){
-            for(Coordinates.Direction d : Coordinates.CARDINAL_NEIGHBORS){
+            for(Coordinates.Direction d : Coordinates.cardinalNeighbors()){
                 boolean canFlip = true;
                 for(int i=1; i<=value; i++){
                     Coordinates newCords = cords.sum(d.coords.multiply(i));
@@ -62,6 +112,7 @@ public class TipOverConfig implements Configuration {
                         newBoard.set(1, toSet);
                     }
                     TipOverConfig newConfig = new TipOverConfig(newBoard, newCords, goal);
+                    newConfig.move = new TipOverMove(d, true);
                     toReturn.add(newConfig);
                 }
             }
@@ -70,6 +121,15 @@ public class TipOverConfig implements Configuration {
         return toReturn;
     }
 
+    /**
+     * Returns the move that made this configuration.
+     * @return the step or tip, or null if this configuration was not made by getNeighbors
+     */
+    @Override
+    public TipOverMove getMove(){
+        return move;
+    }
+
     /**
      * Returns whether the current coordinates are the solution.
      * @return true if solution, false otherwise
@@ -78,6 +138,70 @@ public class TipOverConfig implements Configuration {
         return cords.equals(goal);
     }
 
+    /**
+     * Checks whether the goal could ever be reached, allowing every tower the tipper can reach to tip over any
+     * cells it might; see {@link TipOverReachability}.
+     * @return false if there is certainly no solution, true if there may be one
+     */
+    @Override
+    public boolean mayBeSolvable(){
+        return TipOverReachability.goalMayBeReachable(board, cords, goal);
+    }
+
+    /**
+     * Estimates the moves left. Every move goes along a row or a column, so the tipper needs
+     * at least one move to reach the goal, and at least two if it is in neither the goal's row nor column.
+     * @return 0 at the goal, 1 in line with it, 2 otherwise
+     */
+    public int estimate(){
+        if(cords.equals(goal)){
+            return 0;
+        }
+        return cords.row() == goal.row() || cords.col() == goal.col() ? 1 : 2;
+    }
+
+    /**
+     * Returns the fingerprint of the configuration: the board's Zobrist hash, with the tipper's position mixed in
+     * @return 64 bit fingerprint
+     */
+    public long fingerprint(){
+        return board.getZobristHash() ^ (cords.row() * 0x9E3779B97F4A7C15L + cords.col()) * 0xBF58476D1CE4E5B9L;
+    }
+
+    /**
+     * Returns the key the memo remembers the configuration by: one character for each of the board's size, the
+     * tipper's coordinates and the goal's, then one for each tower height, row by row
+     * @return the key
+     */
+    public String memoKey(){
+        StringBuilder key = new StringBuilder(6 + board.getNRows() * board.getNCols());
+        key.append((char) board.getNRows()).append((char) board.getNCols())
+                .append((char) cords.row()).append((char) cords.col())
+                .append((char) goal.row()).append((char) goal.col());
+        for(int i=0; i<board.getNRows(); i++){
+            for(int j=0; j<board.getNCols(); j++){
+                key.append((char) (int) board.get(i, j));
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Returns the memo shared by every TipOver configuration.
+     * @return the memo
+     */
+    public SolutionMemo getMemo(){
+        return MEMO;
+    }
+
+    /**
+     * Returns the memo shared by every TipOver search in the process, such as to change its budget.
+     * @return the memo
+     */
+    public static SolutionMemo getSharedMemo(){
+        return MEMO;
+    }
+
     /**
      * Returns the hashcode of the configuration
      * @return hash code
@@ -106,40 +230,56 @@ public class TipOverConfig implements Configuration {
      */
     @Override
     public String toString(){
-        String toReturn = "\n     ";
+        StringBuilder text = new StringBuilder();
+        try{
+            appendTo(text);
+        }
+        catch(IOException ex){
+            // a StringBuilder never throws
+            throw new UncheckedIOException(ex);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Writes the same text as {@link #toString()} straight into a destination.
+     * @param out where to write
+     * @throws IOException if out cannot be written to
+     */
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        out.append("\n     ");
         for(int i=0; i<board.getNCols(); i++){
-            toReturn += i + "  ";
+            out.append(Integer.toString(i)).append("  ");
         }
-        toReturn += "\n   ";
+        out.append("\n   ");
         for(int i=0; i<board.getNCols(); i++){
-            toReturn += "___";
+            out.append("___");
         }
-        toReturn += "\n";
+        out.append('\n');
         for(int i=0; i<board.getNRows(); i++){
-            toReturn += i + " | ";
+            out.append(Integer.toString(i)).append(" | ");
             for(int j=0; j<board.getNCols(); j++){
-                Coordinates thisCords = new Coordinates(i, j);
-                int value = board.get(thisCords);
-                if(thisCords.equals(cords)){
-                    toReturn += "*";
+                if(i == cords.row() && j == cords.col()){
+                    out.append('*');
                 }
-                else if(thisCords.equals(goal)){
-                    toReturn += "!";
+                else if(i == goal.row() && j == goal.col()){
+                    out.append('!');
                 }
                 else{
-                    toReturn += " ";
+                    out.append(' ');
                 }
 
+                int value = board.get(i, j);
                 if(value == 0){
-                    toReturn += "_ ";
+                    out.append("_ ");
                 }
                 else{
-                    toReturn += value + " ";
+                    out.append(Integer.toString(value)).append(' ');
                 }
             }
-            toReturn += "\n";
+            out.append('\n');
         }
-        return toReturn;
     }
 
     /**
@@ -1,15 +1,21 @@
 package puzzles.tipover.model;
 
+import solver.Configuration;
+import solver.SearchResult;
 import solver.Solver;
+import solver.SolverEvents;
 import util.Coordinates;
+import util.EventBus;
 import util.Grid;
 import util.Observer;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * A model to be used by the GUI and PTUI.
@@ -19,15 +25,16 @@ import java.util.Scanner;
 public class TipOverModel {
 
     private TipOverConfig currentConfig;
-    private List<Observer<TipOverModel, Object>> observerList;
+    private final EventBus<TipOverModel, Object> observers = new EventBus<>(this);
     private String filename;
+    // true if the current configuration is a step of a solution being played, which moves must not change
+    private boolean playingStep;
 
     /**
      * Creates a new model and loads the inputted file.
      * @param filename file to load
      */
     public TipOverModel(String filename){
-        observerList = new LinkedList<>();
         loadFile(filename);
     }
 
@@ -46,6 +53,11 @@ public class TipOverModel {
             announce("Invalid Direction");
         }
         else{
+            if(playingStep){
+                currentConfig = new TipOverConfig(new Grid<>(currentConfig.getBoard()), currentConfig.getCords(),
+                        currentConfig.getGoal());
+                playingStep = false;
+            }
             Coordinates.Direction newDir = Coordinates.Direction.valueOf(direction);
             Coordinates cords = currentConfig.getCords();
             Grid<Integer> board = currentConfig.getBoard();
@@ -132,19 +144,9 @@ public class TipOverModel {
      * @param filename file name
      */
     public void loadFile(String filename){
-        try{
-            Scanner scanner = new Scanner(new File(filename));
-            int height = scanner.nextInt();
-            int width = scanner.nextInt();
-            Coordinates position = new Coordinates(scanner.nextInt(), scanner.nextInt());
-            Coordinates goal = new Coordinates(scanner.nextInt(), scanner.nextInt());
-            Grid<Integer> board = new Grid<>(0, height, width);
-            for(int i=0; i<height; i++){
-                for(int j=0; j<width; j++){
-                    board.set(scanner.nextInt(), i, j);
-                }
-            }
-            currentConfig = new TipOverConfig(board, position, goal);
+        try(Scanner scanner = new Scanner(new File(filename))){
+            currentConfig = new TipOverConfig(scanner);
+            playingStep = false;
             this.filename = filename;
             announce(null);
         }
@@ -155,7 +157,8 @@ public class TipOverModel {
     }
 
     /**
-     * Uses the solver to find the next move that will lead to the shortest solution.
+     * Uses the solver to find the next move that will lead to the shortest solution, makes it, and announces
+     * what it was, such as "Hint: tip north".
      */
     public void getHint(){
         if(currentConfig == null){
@@ -165,16 +168,60 @@ public class TipOverModel {
             announce("You Win!");
         }
         else {
-            TipOverConfig newConfig = (TipOverConfig) Solver.getHint(currentConfig);
+            SolverEvents.Hint event = new SolverEvents.Hint();
+            event.begin();
+            SearchResult result = Solver.search(currentConfig, filename);
+            TipOverConfig newConfig = (TipOverConfig) Solver.nextMove(result.getPredecessors(), result.getSolution());
+            event.finish(filename, result);
             if (newConfig == null) {
                 announce("No solutions");
             } else {
                 currentConfig = newConfig;
-                announce(null);
+                playingStep = false;
+                announce("Hint: " + newConfig.getMove());
             }
         }
     }
 
+    /**
+     * Finds the whole shortest solution from the current configuration on a background thread.
+     * @param whenSolved given every configuration from the current one to the solution, or null if there is
+     *                   no solution or no file is loaded, on the background thread
+     */
+    public void solve(Consumer<List<TipOverConfig>> whenSolved){
+        if(currentConfig == null){
+            whenSolved.accept(null);
+            return;
+        }
+        // moves change the board in place, so the search gets its own copy
+        TipOverConfig start = new TipOverConfig(new Grid<>(currentConfig.getBoard()), currentConfig.getCords(),
+                currentConfig.getGoal());
+        String puzzle = filename;
+        Thread thread = new Thread(() -> {
+            List<Configuration> path = Solver.search(start, puzzle).getPath();
+            List<TipOverConfig> steps = null;
+            if(path != null){
+                steps = new ArrayList<>(path.size());
+                for(Configuration config : path){
+                    steps.add((TipOverConfig) config);
+                }
+            }
+            whenSolved.accept(steps);
+        }, "TipOver solve");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Makes a step of a solution found by {@link #solve(Consumer)} the current configuration.
+     * @param step the step
+     */
+    public void showStep(TipOverConfig step){
+        currentConfig = step;
+        playingStep = true;
+        announce(null);
+    }
+
     /**
      * Returns a string representation of the configuration.
      * @return string
@@ -185,11 +232,30 @@ public class TipOverModel {
     }
 
     /**
-     * Adds a new observer to the observer list.
+     * Adds a new observer, which is updated on the thread that changes the model, once for every change.
      * @param observer observer object
      */
     public void addObserver(Observer<TipOverModel, Object> observer){
-        observerList.add(observer);
+        observers.subscribe(observer, Runnable::run);
+    }
+
+    /**
+     * Adds a new observer that is updated on its own executor, so a slow observer does not hold up the model.
+     * If the model changes faster than the executor runs updates, the observer only gets the latest one.
+     * The model only keeps a weak reference to the observer.
+     * @param observer observer object
+     * @param executor runs the observer's updates, such as Platform::runLater for a GUI
+     */
+    public void addObserver(Observer<TipOverModel, Object> observer, Executor executor){
+        observers.subscribeWeakly(observer, executor);
+    }
+
+    /**
+     * Removes an observer.
+     * @param observer observer object
+     */
+    public void removeObserver(Observer<TipOverModel, Object> observer){
+        observers.unsubscribe(observer);
     }
 
     /**
@@ -197,8 +263,6 @@ public class TipOverModel {
      * @param arg message to display
      */
     public void announce(String arg){
-        for(var observer : observerList){
-            observer.update(this, arg);
-        }
+        observers.publish(arg);
     }
 }
@@ -0,0 +1,26 @@
+package puzzles.tipover.model;
+
+import solver.Move;
+import util.Coordinates;
+
+import java.util.Locale;
+
+/**
+ * One move of the tipper: stepping onto the tower next to it, or tipping its tower over.
+ * @param direction the way the tipper went
+ * @param tip true if the tower was tipped over, false if the tipper stepped
+ * @author Eli Lurie
+ * November 2021
+ */
+public record TipOverMove(Coordinates.Direction direction, boolean tip) implements Move {
+
+    /**
+     * Describes the move as "tip" or "step" and the direction, such as "tip north".
+     * The direction is the one the move command takes.
+     * @return the description
+     */
+    @Override
+    public String toString(){
+        return (tip ? "tip " : "step ") + direction.name().toLowerCase(Locale.ROOT);
+    }
+}
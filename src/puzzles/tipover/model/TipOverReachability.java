@@ -0,0 +1,154 @@
+package puzzles.tipover.model;
+
+import util.Coordinates;
+import util.Grid;
+
+import java.util.ArrayDeque;
+
+/**
+ * A quick check, run before searching, that can prove a tip over board unsolvable.
+ * It finds every cell the tipper could ever stand on, allowing more than the rules do: a cell may hold a tower
+ * if it holds one at the start, or if some tower the tipper can reach could tip over it. A tower can tip over
+ * cells that are inside the board and either empty or holding a tower that might tip away first. Towers the
+ * tipper can never reach are left out, since they never tip. If the goal is not among the cells found,
+ * no order of moves reaches it.
+ * @author Eli Lurie
+ * November 2021
+ */
+final class TipOverReachability {
+    private static final int[] ROW_STEPS = {-1, 1, 0, 0};
+    private static final int[] COL_STEPS = {0, 0, 1, -1};
+
+    private final int rows;
+    private final int cols;
+    // tower heights at the start, by row * cols + col
+    private final int[] heights;
+    // cells that may hold a tower at some point
+    private final boolean[] occupied;
+    // cells the tipper may stand on at some point
+    private final boolean[] reached;
+    private final ArrayDeque<Integer> work = new ArrayDeque<>();
+
+    /**
+     * Reads the starting board.
+     * @param board tower heights
+     */
+    private TipOverReachability(Grid<Integer> board){
+        rows = board.getNRows();
+        cols = board.getNCols();
+        heights = new int[rows * cols];
+        occupied = new boolean[rows * cols];
+        reached = new boolean[rows * cols];
+        for(int r=0; r<rows; r++){
+            for(int c=0; c<cols; c++){
+                heights[r * cols + c] = board.get(r, c);
+                occupied[r * cols + c] = heights[r * cols + c] != 0;
+            }
+        }
+    }
+
+    /**
+     * Determines whether the goal might be reachable from the start.
+     * @param board tower heights
+     * @param start where the tipper is
+     * @param goal the goal
+     * @return false if the board certainly has no solution, true if it might have one
+     */
+    static boolean goalMayBeReachable(Grid<Integer> board, Coordinates start, Coordinates goal){
+        return new TipOverReachability(board).search(start.row() * board.getNCols() + start.col(),
+                goal.row() * board.getNCols() + goal.col());
+    }
+
+    /**
+     * Spreads out from the start over cells that may hold towers, adding the cells each reached tower could tip over.
+     * @param start cell of the tipper
+     * @param goal cell of the goal
+     * @return true if the goal was reached
+     */
+    private boolean search(int start, int goal){
+        reached[start] = true;
+        work.add(start);
+        while(!work.isEmpty()){
+            int cell = work.remove();
+            if(cell == goal){
+                return true;
+            }
+            int row = cell / cols;
+            int col = cell % cols;
+            if(heights[cell] > 1){
+                for(int d=0; d<ROW_STEPS.length; d++){
+                    tip(row, col, ROW_STEPS[d], COL_STEPS[d], heights[cell]);
+                }
+            }
+            for(int d=0; d<ROW_STEPS.length; d++){
+                int r = row + ROW_STEPS[d];
+                int c = col + COL_STEPS[d];
+                if(r >= 0 && r < rows && c >= 0 && c < cols && occupied[r * cols + c]){
+                    reach(r * cols + c);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks the cells a tower could tip over in one direction as possibly holding towers, if it could tip that way.
+     * @param row row of the tower
+     * @param col column of the tower
+     * @param rowStep row change of the direction
+     * @param colStep column change of the direction
+     * @param height height of the tower
+     */
+    private void tip(int row, int col, int rowStep, int colStep, int height){
+        int lastRow = row + rowStep * height;
+        int lastCol = col + colStep * height;
+        if(lastRow < 0 || lastRow >= rows || lastCol < 0 || lastCol >= cols){
+            return;
+        }
+        for(int i=1; i<=height; i++){
+            int h = heights[(row + rowStep * i) * cols + col + colStep * i];
+            if(h == 1){
+                // a tower of height 1 can never move out of the way
+                return;
+            }
+        }
+        for(int i=1; i<=height; i++){
+            int r = row + rowStep * i;
+            int c = col + colStep * i;
+            if(!occupied[r * cols + c]){
+                occupied[r * cols + c] = true;
+                if(touchesReached(r, c)){
+                    reach(r * cols + c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines whether a cell is next to a cell the tipper may stand on.
+     * @param row row of the cell
+     * @param col column of the cell
+     * @return true if a neighbor was reached
+     */
+    private boolean touchesReached(int row, int col){
+        for(int d=0; d<ROW_STEPS.length; d++){
+            int r = row + ROW_STEPS[d];
+            int c = col + COL_STEPS[d];
+            if(r >= 0 && r < rows && c >= 0 && c < cols && reached[r * cols + c]){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks a cell as one the tipper may stand on, and queues it to be spread from.
+     * @param cell the cell
+     */
+    private void reach(int cell){
+        if(!reached[cell]){
+            reached[cell] = true;
+            work.add(cell);
+        }
+    }
+}
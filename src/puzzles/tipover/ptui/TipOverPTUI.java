@@ -2,7 +2,13 @@ package puzzles.tipover.ptui;
 
 import puzzles.tipover.model.TipOverModel;
 import util.Observer;
+import util.ptui.ConsoleApplication;
 
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.Scanner;
 
@@ -13,22 +19,38 @@ import java.util.Scanner;
  */
 public class TipOverPTUI implements Observer<TipOverModel, Object> {
     private TipOverModel model;
+    // true to print nothing, for replaying scripts
+    private final boolean quiet;
 
     /**
      * Creates a new model and sets itself as an observer.
      * @param filename file name
      */
     public TipOverPTUI(String filename){
+        this(filename, false);
+    }
+
+    /**
+     * Creates a new model, and unless quiet, sets itself as an observer.
+     * @param filename file name
+     * @param quiet true to print nothing, not even the board
+     */
+    public TipOverPTUI(String filename, boolean quiet){
+        this.quiet = quiet;
         model = new TipOverModel(filename);
-        model.addObserver(this);
-        update(model, null);
+        if(!quiet){
+            model.addObserver(this);
+            update(model, null);
+        }
     }
 
     /**
      * Displays the current board.
      */
     public void displayBoard(){
-        System.out.println(model.toString());
+        if(!quiet){
+            System.out.println(model.toString());
+        }
     }
 
     /**
@@ -38,27 +60,45 @@ public class TipOverPTUI implements Observer<TipOverModel, Object> {
         Scanner in = new Scanner(System.in);
         boolean go = true;
         while(go){
-            String line = in.nextLine();
-            String[] words = line.split("\\s+");
-            if(words.length > 0){
-                switch (words[0]) {
-                    case "move" -> model.move(words[1].toUpperCase(Locale.ROOT));
-                    case "reload" -> model.reloadFile();
-                    case "load" -> model.loadFile(words[1]);
-                    case "hint" -> model.getHint();
-                    case "show" -> displayBoard();
-                    case "quit" -> go = false;
-                    case "help" -> help();
-                    default -> System.out.println("Invalid command (enter 'help' for a list of commands)");
+            go = execute(in.nextLine());
+        }
+    }
+
+    /**
+     * Runs one command.
+     * @param line the command and its arguments
+     * @return false if the command was quit
+     */
+    public boolean execute(String line){
+        String[] words = line.split("\\s+");
+        if(words.length > 0){
+            switch (words[0]) {
+                case "move" -> model.move(words[1].toUpperCase(Locale.ROOT));
+                case "reload" -> model.reloadFile();
+                case "load" -> model.loadFile(words[1]);
+                case "hint" -> model.getHint();
+                case "show" -> displayBoard();
+                case "quit" -> {
+                    return false;
+                }
+                case "help" -> help();
+                default -> {
+                    if(!quiet){
+                        System.out.println("Invalid command (enter 'help' for a list of commands)");
+                    }
                 }
             }
         }
+        return true;
     }
 
     /**
      * Displays all valid user commands.
      */
     public void help(){
+        if(quiet){
+            return;
+        }
         System.out.println("Valid command are: ");
         System.out.println("\t> help : show all commands");
         System.out.println("\t> move {north|south|east|west} : move in given direction");
@@ -70,14 +110,25 @@ public class TipOverPTUI implements Observer<TipOverModel, Object> {
     }
 
     /**
-     * Initiates a new PTUI.
-     * @param args filename
+     * Initiates a new PTUI, or with --replay, runs command scripts against many quiet PTUIs at once and reports
+     * how fast the commands ran.
+     * @param args filename, or --replay filename instances script...
+     * @throws IOException if a script cannot be read
      */
-    public static void main( String[] args ) {
+    public static void main( String[] args ) throws IOException {
         if(args.length == 1) {
             TipOverPTUI ptui = new TipOverPTUI(args[0]);
             ptui.run();
         }
+        else if(args.length >= 4 && args[0].equals("--replay")){
+            List<Path> scripts = new ArrayList<>();
+            for(int i=3; i<args.length; i++){
+                scripts.add(Path.of(args[i]));
+            }
+            ConsoleApplication.replay(() -> new TipOverPTUI(args[1], true)::execute, scripts,
+                    Integer.parseInt(args[2]), Runtime.getRuntime().availableProcessors(),
+                    new PrintWriter(System.out));
+        }
         else{
             System.out.println("Invalid arguments");
         }
@@ -89,6 +140,9 @@ public class TipOverPTUI implements Observer<TipOverModel, Object> {
      * @param announce message to display
      */
     public void update(TipOverModel thisModel, Object announce){
+        if(quiet){
+            return;
+        }
         if(announce != null){
             System.out.println(announce);
         }
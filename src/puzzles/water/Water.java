@@ -1,9 +1,10 @@
 package puzzles.water;
 
+import solver.SearchOptions;
 import solver.Solver;
-import solver.WaterConfiguration;
+import solver.PackedWaterConfiguration;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static java.lang.Integer.parseInt;
@@ -18,25 +19,26 @@ public class Water {
     /**
      * Run an instance of the water buckets puzzle.
      * @param args [0]: desired amount of water to be collected;
-     *             [1..N]: the capacities of the N available buckets.
+     *             [1..N]: the capacities of the N available buckets;
+     *             followed by any of the search options.
      */
     public static void main( String[] args ) {
-        if ( args.length < 2 ) {
+        SearchOptions options = SearchOptions.tryParse( args );
+        if ( options == null || options.getArguments().size() < 2 ) {
             System.out.println(
-                    ( "Usage: java Water amount bucket1 bucket2 ..." )
+                    ( "Usage: java Water amount bucket1 bucket2 ... " + SearchOptions.usage() )
             );
         }
         else {
-            int amount = parseInt(args[0]);
-            List<Integer> buckets = new ArrayList<>();
-            List<Integer> current = new ArrayList<>();
-            for(int i=1; i<args.length; i++){
-                buckets.add(parseInt(args[i]));
-                current.add(0);
+            List<String> arguments = options.getArguments();
+            int amount = parseInt(arguments.get(0));
+            int[] buckets = new int[arguments.size() - 1];
+            for(int i=1; i<arguments.size(); i++){
+                buckets[i - 1] = parseInt(arguments.get(i));
             }
-            System.out.println("Amount: " + amount + ", Buckets: " + buckets);
-            WaterConfiguration initialConfig = new WaterConfiguration(buckets, current, amount);
-            Solver.solve(initialConfig);
+            System.out.println("Amount: " + amount + ", Buckets: " + Arrays.toString(buckets));
+            PackedWaterConfiguration initialConfig = new PackedWaterConfiguration(buckets, new int[buckets.length], amount);
+            Solver.solve(initialConfig, options);
         }
     }
 }
@@ -0,0 +1,97 @@
+package solver;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * An A* search that expands configurations in order of moves made plus the estimate of moves left, for
+ * configurations that implement {@link HeuristicConfiguration}. Other configurations are estimated at 0,
+ * which expands them in the same order as a breadth first search.
+ *
+ * @author Eli Lurie
+ */
+public class AStarStrategy implements SearchStrategy {
+
+    /**
+     * A configuration waiting to be expanded
+     * @param config the configuration
+     * @param moves moves from the start
+     * @param priority moves plus the estimate of moves left
+     * @param order when it was added, so equal priorities come out first in first out
+     */
+    private record Entry(Configuration config, int moves, int priority, long order) implements Comparable<Entry> {
+        /**
+         * Orders entries by priority, then by when they were added.
+         * @param other entry to compare to
+         * @return negative if this entry comes out first
+         */
+        public int compareTo(Entry other){
+            return priority != other.priority ? Integer.compare(priority, other.priority) :
+                    Long.compare(order, other.order);
+        }
+    }
+
+    /**
+     * Returns the name of this strategy.
+     * @return "astar"
+     */
+    public String name(){
+        return "astar";
+    }
+
+    /**
+     * Estimates the moves left from a configuration.
+     * @param config the configuration
+     * @return the estimate, or 0 if the configuration cannot estimate
+     */
+    private static int estimate(Configuration config){
+        return config instanceof HeuristicConfiguration heuristic ? heuristic.estimate() : 0;
+    }
+
+    /**
+     * Searches in order of estimated total moves.
+     * @param initialConfig starting configuration
+     * @param options limits of the search
+     * @return the configuration counts and, if found, the path to the solution
+     */
+    public SearchResult search(Configuration initialConfig, SearchOptions options){
+        long deadline = options.deadline();
+        PriorityQueue<Entry> open = new PriorityQueue<>();
+        long added = 0;
+        open.add(new Entry(initialConfig, 0, estimate(initialConfig), added++));
+
+        Map<Configuration, Configuration> predecessor = new HashMap<>();
+        Map<Configuration, Integer> moves = new HashMap<>();
+        predecessor.put(initialConfig, null);
+        moves.put(initialConfig, 0);
+
+        int totalConfigs = 0;
+        int uniqueConfigs = 0;
+        while(!open.isEmpty()){
+            options.checkLimits(uniqueConfigs, deadline);
+            Entry current = open.remove();
+            if(current.moves() > moves.get(current.config())){
+                // a shorter way to this configuration was found after it was added
+                continue;
+            }
+            if(current.config().isSolution()){
+                return new SearchResult(totalConfigs, uniqueConfigs, predecessor, current.config(), open.size());
+            }
+            for(Configuration neighbor : current.config().getNeighbors()){
+                totalConfigs++;
+                int neighborMoves = current.moves() + 1;
+                Integer known = moves.get(neighbor);
+                if(known == null || neighborMoves < known){
+                    if(known == null){
+                        uniqueConfigs++;
+                    }
+                    moves.put(neighbor, neighborMoves);
+                    predecessor.put(neighbor, current.config());
+                    open.add(new Entry(neighbor, neighborMoves, neighborMoves + estimate(neighbor), added++));
+                }
+            }
+        }
+        return new SearchResult(totalConfigs, uniqueConfigs, predecessor, null, 0);
+    }
+}
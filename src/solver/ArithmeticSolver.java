@@ -0,0 +1,189 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Specialised solvers for the clock and water puzzles that skip the general Configuration search.
+ * The clock is answered with a closed form, and the water buckets are searched over levels packed
+ * into a single long, so no configuration objects are created per state.
+ *
+ * @author Eli Lurie
+ */
+public class ArithmeticSolver {
+    /** Most combinations of bucket levels waterPath will search, so large capacities cannot exhaust the heap */
+    public static final long MAX_WATER_STATES = 1L << 24;
+
+    /**
+     * Finds the shortest path around the clock. Ties go backwards, matching the order in which
+     * ClockConfiguration lists its neighbors.
+     * @param hours number of hours on the clock
+     * @param start starting time
+     * @param goal goal time
+     * @return every time on the path, including start and goal
+     * @throws IllegalArgumentException if there are no hours, or start or goal is not between 1 and hours
+     */
+    public static int[] clockPath(int hours, int start, int goal){
+        if(hours < 1){
+            throw new IllegalArgumentException("The clock needs at least one hour, not " + hours);
+        }
+        if(start < 1 || start > hours || goal < 1 || goal > hours){
+            throw new IllegalArgumentException("Start and goal must be between 1 and " + hours);
+        }
+        int forward = Math.floorMod(goal - start, hours);
+        int backward = hours - forward;
+        int steps = forward == 0 ? 0 : Math.min(forward, backward);
+        int direction = backward <= forward ? -1 : 1;
+        int[] path = new int[steps + 1];
+        for(int i=0; i<=steps; i++){
+            path[i] = Math.floorMod(start - 1 + direction * i, hours) + 1;
+        }
+        return path;
+    }
+
+    /**
+     * Determines if the amount can ever be in one of the buckets. Every level reachable by filling, draining
+     * and pouring is a multiple of the gcd of the capacities, and no bucket holds more than the largest capacity.
+     * @param amount amount of water to find
+     * @param capacities capacity of each bucket
+     * @return false if the amount is impossible, true if a search is needed to know
+     */
+    public static boolean waterMaybeSolvable(int amount, int[] capacities){
+        if(amount == 0){
+            return true;
+        }
+        int gcd = 0;
+        int largest = 0;
+        for(int capacity : capacities){
+            gcd = gcd(gcd, capacity);
+            largest = Math.max(largest, capacity);
+        }
+        return amount > 0 && amount <= largest && gcd != 0 && amount % gcd == 0;
+    }
+
+    /**
+     * Finds the shortest sequence of fills, drains and pours that leaves the amount in one of the buckets,
+     * starting from empty buckets. The bucket levels are packed into one long using a mixed radix
+     * where bucket i has radix capacity i + 1.
+     * @param amount amount of water to find
+     * @param capacities capacity of each bucket
+     * @return the bucket levels at every step, or null if there is no solution
+     * @throws IllegalArgumentException if there are no buckets, a capacity is not positive, or the buckets have
+     * more than {@link #MAX_WATER_STATES} combinations of levels
+     */
+    public static List<int[]> waterPath(int amount, int[] capacities){
+        int n = capacities.length;
+        if(n == 0){
+            throw new IllegalArgumentException("Expected at least one bucket");
+        }
+        long[] weights = new long[n];
+        long weight = 1;
+        for(int i=0; i<n; i++){
+            if(capacities[i] < 1){
+                throw new IllegalArgumentException("Bucket capacities must be positive, not " + capacities[i]);
+            }
+            if(weight > MAX_WATER_STATES / (capacities[i] + 1L)){
+                throw new IllegalArgumentException("The buckets have more than " + MAX_WATER_STATES +
+                        " combinations of levels");
+            }
+            weights[i] = weight;
+            weight *= capacities[i] + 1L;
+        }
+        if(!waterMaybeSolvable(amount, capacities)){
+            return null;
+        }
+
+        LongLongMap predecessor = new LongLongMap(1024);
+        long[] queue = new long[1024];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = 0;
+        predecessor.putIfAbsent(0, -1);
+        int[] levels = new int[n];
+        long[] moves = new long[n + 1];
+
+        while(head < tail){
+            long current = queue[head++];
+            decode(current, capacities, levels);
+            for(int level : levels){
+                if(level == amount){
+                    return path(predecessor, current, capacities);
+                }
+            }
+            for(int i=0; i<n; i++){
+                int count = 0;
+                //fill
+                moves[count++] = current + (capacities[i] - levels[i]) * weights[i];
+                //drain
+                moves[count++] = current - levels[i] * weights[i];
+                //pour
+                for(int j=0; j<n; j++){
+                    if(j != i){
+                        int poured = Math.min(levels[i], capacities[j] - levels[j]);
+                        moves[count++] = current - poured * weights[i] + poured * weights[j];
+                    }
+                }
+                for(int k=0; k<count; k++){
+                    if(predecessor.putIfAbsent(moves[k], current)){
+                        if(tail == queue.length){
+                            long[] bigger = new long[queue.length * 2];
+                            System.arraycopy(queue, head, bigger, 0, tail - head);
+                            tail -= head;
+                            head = 0;
+                            queue = bigger;
+                        }
+                        queue[tail++] = moves[k];
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Unpacks bucket levels from their mixed radix encoding
+     * @param state packed levels
+     * @param capacities capacity of each bucket
+     * @param levels array to fill with the levels
+     */
+    private static void decode(long state, int[] capacities, int[] levels){
+        for(int i=0; i<capacities.length; i++){
+            levels[i] = (int) (state % (capacities[i] + 1L));
+            state /= capacities[i] + 1L;
+        }
+    }
+
+    /**
+     * Follows the predecessors back from the solution to the starting state
+     * @param predecessor map from each state to the state it was found from
+     * @param last the solution state
+     * @param capacities capacity of each bucket
+     * @return the bucket levels at every step, from start to solution
+     */
+    private static List<int[]> path(LongLongMap predecessor, long last, int[] capacities){
+        List<int[]> path = new ArrayList<>();
+        for(long current = last; current != -1; current = predecessor.get(current, -1)){
+            int[] levels = new int[capacities.length];
+            decode(current, capacities, levels);
+            path.add(levels);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Computes the greatest common divisor
+     * @param a first number
+     * @param b second number
+     * @return gcd of a and b
+     */
+    private static int gcd(int a, int b){
+        while(b != 0){
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,26 @@
+package solver;
+
+/**
+ * The serial breadth first search of {@link Solver#search(Configuration)}.
+ *
+ * @author Eli Lurie
+ */
+public class BreadthFirstStrategy implements SearchStrategy {
+    /**
+     * Returns the name of this strategy.
+     * @return "bfs"
+     */
+    public String name(){
+        return "bfs";
+    }
+
+    /**
+     * Searches breadth first on the calling thread.
+     * @param initialConfig starting configuration
+     * @param options limits of the search
+     * @return the configuration counts and, if found, the path to the solution
+     */
+    public SearchResult search(Configuration initialConfig, SearchOptions options){
+        return Solver.search(initialConfig, initialConfig.getClass().getSimpleName(), options);
+    }
+}
@@ -6,7 +6,7 @@ import java.util.List;
 /**
  * Configuration for clock data
  */
-public class ClockConfiguration implements Configuration{
+public class ClockConfiguration implements HeuristicConfiguration, FingerprintedConfiguration{
     private final int max;
     private final int solution;
     private final int current;
@@ -52,6 +52,23 @@ public class ClockConfiguration implements Configuration{
         return solution == current;
     }
 
+    /**
+     * Returns the exact number of moves left, the shorter way around the clock
+     * @return distance to the solution
+     */
+    public int estimate(){
+        int distance = Math.abs(solution - current);
+        return Math.min(distance, max - distance);
+    }
+
+    /**
+     * Returns the fingerprint, which is the current number itself
+     * @return current
+     */
+    public long fingerprint(){
+        return current;
+    }
+
     /**
      * Overrides the toString method
      * @return current
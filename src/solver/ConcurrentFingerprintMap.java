@@ -0,0 +1,132 @@
+package solver;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free visited set and predecessor table for searches that run on several threads at once.
+ * Configurations are identified by 64 bit fingerprints, and each one is stored with the fingerprint
+ * of the configuration it was first found from.
+ * <br><br>
+ * Keys and predecessors sit next to each other in one atomic array using open addressing with linear
+ * probing. A thread claims an empty slot with a compare-and-set on the key and then writes the
+ * predecessor, so exactly one thread succeeds in {@link #putIfAbsent(long, long)} for each fingerprint,
+ * the same first discoverer wins rule as the serial solver's containsKey followed by put.
+ * The table does not grow, so it must be created large enough for the whole search.
+ *
+ * @author Eli Lurie
+ */
+public class ConcurrentFingerprintMap {
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    // slot i holds its key at index 2i and its predecessor at index 2i+1
+    private final AtomicLongArray table;
+    private final int mask;
+    private final LongAdder size;
+
+    /**
+     * Creates an empty map
+     * @param expected most entries the map will hold, the table is made at least twice as large
+     * @throws IllegalArgumentException if expected is negative, or too large for the table to be an array
+     */
+    public ConcurrentFingerprintMap(int expected){
+        if(expected < 0){
+            throw new IllegalArgumentException("Negative number of entries: " + expected);
+        }
+        // worked out in longs, since twice a large int does not fit in one
+        long capacity = Long.highestOneBit(Math.max(16L, 2L * expected - 1)) << 1;
+        if(capacity > 1 << 29){
+            throw new IllegalArgumentException("Too many entries: " + expected);
+        }
+        table = new AtomicLongArray((int) capacity * 2);
+        for(int i=0; i<table.length(); i++){
+            table.setPlain(i, EMPTY);
+        }
+        mask = (int) capacity - 1;
+        size = new LongAdder();
+    }
+
+    /**
+     * Adds the fingerprint with its predecessor unless another thread added it first
+     * @param fingerprint fingerprint of the configuration, must not be Long.MIN_VALUE
+     * @param predecessor fingerprint of the configuration it was found from, must not be Long.MIN_VALUE
+     * @return true if this call added the fingerprint, false if it was already present
+     * @throws IllegalStateException if the table is full
+     */
+    public boolean putIfAbsent(long fingerprint, long predecessor){
+        int i = (int) LongLongMap.mix(fingerprint) & mask;
+        for(int probes=0; probes<=mask; probes++){
+            long key = table.get(2 * i);
+            if(key == EMPTY){
+                key = table.compareAndExchange(2 * i, EMPTY, fingerprint);
+                if(key == EMPTY){
+                    table.set(2 * i + 1, predecessor);
+                    size.increment();
+                    return true;
+                }
+            }
+            if(key == fingerprint){
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        throw new IllegalStateException("Visited map is full at " + (mask + 1) + " entries");
+    }
+
+    /**
+     * Finds the slot holding a fingerprint
+     * @param fingerprint fingerprint to find
+     * @return slot index, or -1 if not present
+     */
+    private int find(long fingerprint){
+        int i = (int) LongLongMap.mix(fingerprint) & mask;
+        for(int probes=0; probes<=mask; probes++){
+            long key = table.get(2 * i);
+            if(key == fingerprint){
+                return i;
+            }
+            if(key == EMPTY){
+                return -1;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Determines if the fingerprint is in the map
+     * @param fingerprint fingerprint to find
+     * @return true if present, false otherwise
+     */
+    public boolean containsKey(long fingerprint){
+        return find(fingerprint) >= 0;
+    }
+
+    /**
+     * Returns the predecessor of a fingerprint. If the adding thread has claimed the slot but not yet
+     * written the predecessor, this waits for it.
+     * @param fingerprint fingerprint to find
+     * @param missing value to return if the fingerprint is not present
+     * @return the predecessor, or missing
+     */
+    public long get(long fingerprint, long missing){
+        int i = find(fingerprint);
+        if(i < 0){
+            return missing;
+        }
+        long predecessor = table.get(2 * i + 1);
+        while(predecessor == EMPTY){
+            Thread.onSpinWait();
+            predecessor = table.get(2 * i + 1);
+        }
+        return predecessor;
+    }
+
+    /**
+     * Returns the number of entries
+     * @return size
+     */
+    public int size(){
+        return size.intValue();
+    }
+}
@@ -1,5 +1,6 @@
 package solver;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -20,6 +21,23 @@ public interface Configuration {
      */
     boolean isSolution();
 
+    /**
+     * Runs a quick check, before any search, that may prove no solution can be reached from this configuration.
+     * @return false if there is certainly no solution, true if there may be one
+     */
+    default boolean mayBeSolvable() {
+        return true;
+    }
+
+    /**
+     * Returns the move that made this configuration, if it was made by {@link #getNeighbors()}. The move is not
+     * part of the configuration's state, so equal configurations may have different moves.
+     * @return the move, or null for a starting configuration or a puzzle that does not describe its moves
+     */
+    default Move getMove() {
+        return null;
+    }
+
     /**
      * Overrides the hash code method
      * @return hashCode
@@ -38,4 +56,14 @@ public interface Configuration {
      * @return String
      */
     String toString();
+
+    /**
+     * Writes the same text as {@link #toString()}. Configurations with large boards override this to write
+     * straight into the destination, so long transcripts do not build a string per configuration.
+     * @param out where to write
+     * @throws IOException if out cannot be written to
+     */
+    default void appendTo(Appendable out) throws IOException {
+        out.append(toString());
+    }
 }
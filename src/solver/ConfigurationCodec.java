@@ -0,0 +1,46 @@
+package solver;
+
+import java.io.Serializable;
+
+/**
+ * Turns configurations into text and back, so they can be sent to another process.
+ * A codec is itself sent to each worker process of the {@link DistributedSolver}.
+ *
+ * @author Eli Lurie
+ */
+public interface ConfigurationCodec extends Serializable {
+    /**
+     * Writes a configuration as text
+     * @param config configuration to write
+     * @return the encoding
+     */
+    String encode(Configuration config);
+
+    /**
+     * Rebuilds a configuration written by {@link #encode(Configuration)}. The rebuilt configuration must
+     * list its neighbors in the same order as the original.
+     * @param encoding the encoding
+     * @return the configuration
+     */
+    Configuration decode(String encoding);
+
+    /**
+     * Rebuilds the starting configuration of a search. It must list its neighbors in the same order as
+     * a configuration loaded by the puzzle's launcher.
+     * @param encoding the encoding
+     * @return the configuration
+     */
+    default Configuration decodeInitial(String encoding){
+        return decode(encoding);
+    }
+
+    /**
+     * Writes the text that chooses which worker owns a configuration. Equal configurations must get the same
+     * key. The encoding is used unless equal configurations can be written differently.
+     * @param config configuration to write
+     * @return the key
+     */
+    default String key(Configuration config){
+        return encode(config);
+    }
+}
@@ -0,0 +1,470 @@
+package solver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A breadth first search spread over several worker processes on the same machine.
+ * <br><br>
+ * Each configuration is owned by one worker, chosen by a hash of its key, and only its owner
+ * remembers it and where it was found from. The search advances one level at a time under the control
+ * of the calling process, the coordinator. At every level each worker expands its part of the frontier and
+ * sends the neighbors, in batches over local sockets through the coordinator, to the workers that own them.
+ * Owners drop the neighbors they have seen and keep the rest as their part of the next frontier.
+ * <br><br>
+ * The results match {@link Solver#search(Configuration)} exactly. Every frontier configuration gets the
+ * rank it would have in the serial queue, a neighbor found from several parents keeps the one with the
+ * lowest rank, and on the level of the solution only the configurations ahead of it in the queue are expanded.
+ * The codec must rebuild configurations that list their neighbors in the same order as the original.
+ *
+ * @author Eli Lurie
+ */
+public class DistributedSolver {
+    private static final byte INIT = 0;
+    private static final byte SEED = 1;
+    private static final byte CHECK = 2;
+    private static final byte EXPAND = 3;
+    private static final byte MERGE = 4;
+    private static final byte RANKS = 5;
+    private static final byte PARENT = 6;
+    private static final byte STOP = 7;
+
+    // a neighbor's place in the serial queue is its parent's rank followed by its index among the parent's neighbors
+    private static final int INDEX_BITS = 20;
+
+    /**
+     * Chooses the worker that owns a configuration. The choice depends only on the codec's key, which is the
+     * same for equal configurations and whose String hash code is the same in every process, so the coordinator
+     * and every worker agree on it.
+     * @param key the configuration's key from {@link ConfigurationCodec#key(Configuration)}
+     * @param workers number of workers
+     * @return index of the owning worker
+     */
+    static int owner(String key, int workers){
+        return (int) Long.remainderUnsigned(LongLongMap.mix(key.hashCode()), workers);
+    }
+
+    /**
+     * Writes a string with its length
+     * @param out stream to write to
+     * @param text string to write
+     * @throws IOException if the stream fails
+     */
+    private static void writeString(DataOutputStream out, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}
+     * @param in stream to read from
+     * @return the string
+     * @throws IOException if the stream fails
+     */
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A neighbor on its way to its owner
+     * @param encoding the neighbor
+     * @param order its place in the serial queue
+     * @param parent the configuration it was found from
+     */
+    private record Discovery(String encoding, long order, String parent){
+    }
+
+    /**
+     * Performs a breadth first search on several worker processes.
+     * @param initialConfig starting configuration
+     * @param codec writes and rebuilds the configurations
+     * @param workers number of worker processes
+     * @return the configuration counts and, if found, the path to the solution
+     * @throws IOException if a worker cannot be started or fails
+     */
+    public static SearchResult search(Configuration initialConfig, ConfigurationCodec codec, int workers)
+            throws IOException {
+        ByteArrayOutputStream codecBytes = new ByteArrayOutputStream();
+        try(ObjectOutputStream objects = new ObjectOutputStream(codecBytes)){
+            objects.writeObject(codec);
+        }
+        List<Process> processes = new ArrayList<>();
+        Socket[] sockets = new Socket[workers];
+        try(ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())){
+            for(int i=0; i<workers; i++){
+                processes.add(workerCommand(server.getLocalPort()).redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                        .redirectError(ProcessBuilder.Redirect.INHERIT).start());
+            }
+            DataInputStream[] in = new DataInputStream[workers];
+            DataOutputStream[] out = new DataOutputStream[workers];
+            for(int i=0; i<workers; i++){
+                sockets[i] = server.accept();
+                in[i] = new DataInputStream(new BufferedInputStream(sockets[i].getInputStream()));
+                out[i] = new DataOutputStream(new BufferedOutputStream(sockets[i].getOutputStream()));
+                out[i].writeByte(INIT);
+                out[i].writeInt(i);
+                out[i].writeInt(workers);
+                out[i].writeInt(codecBytes.size());
+                codecBytes.writeTo(out[i]);
+                out[i].flush();
+            }
+            return coordinate(initialConfig, codec, in, out);
+        }
+        finally{
+            for(Socket socket : sockets){
+                if(socket != null){
+                    socket.close();
+                }
+            }
+            for(Process process : processes){
+                try{
+                    if(!process.waitFor(5, TimeUnit.SECONDS)){
+                        process.destroyForcibly();
+                    }
+                }
+                catch(InterruptedException ex){
+                    process.destroyForcibly();
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the command that starts a worker with the same Java and class path as this process
+     * @param port port of the coordinator
+     * @return the command
+     */
+    private static ProcessBuilder workerCommand(int port){
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        String modulePath = System.getProperty("jdk.module.path");
+        String classPath = System.getProperty("java.class.path");
+        if(classPath != null && !classPath.isEmpty()){
+            command.add("-cp");
+            command.add(classPath);
+        }
+        if(modulePath != null && !modulePath.isEmpty() && DistributedSolver.class.getModule().isNamed()){
+            command.add("-p");
+            command.add(modulePath);
+            command.add("-m");
+            command.add(DistributedSolver.class.getModule().getName() + "/" + DistributedSolver.class.getName());
+        }
+        else{
+            command.add(DistributedSolver.class.getName());
+        }
+        command.add("worker");
+        command.add(String.valueOf(port));
+        return new ProcessBuilder(command);
+    }
+
+    /**
+     * Runs the search level by level on workers that are already connected.
+     * @param initialConfig starting configuration
+     * @param codec writes and rebuilds the configurations
+     * @param in streams from the workers
+     * @param out streams to the workers
+     * @return the configuration counts and, if found, the path to the solution
+     * @throws IOException if a worker fails
+     */
+    private static SearchResult coordinate(Configuration initialConfig, ConfigurationCodec codec,
+                                           DataInputStream[] in, DataOutputStream[] out) throws IOException {
+        int workers = out.length;
+        String initialEncoding = codec.encode(initialConfig);
+        DataOutputStream seed = out[owner(codec.key(initialConfig), workers)];
+        seed.writeByte(SEED);
+        writeString(seed, initialEncoding);
+        seed.flush();
+
+        int totalConfigs = 0;
+        int uniqueConfigs = 0;
+        String solution = null;
+        while(true){
+            long frontier = 0;
+            long solutionRank = Long.MAX_VALUE;
+            for(DataOutputStream worker : out){
+                worker.writeByte(CHECK);
+                worker.flush();
+            }
+            for(DataInputStream worker : in){
+                frontier += worker.readInt();
+                long rank = worker.readLong();
+                String encoding = readString(worker);
+                if(rank >= 0 && rank < solutionRank){
+                    solutionRank = rank;
+                    solution = encoding;
+                }
+            }
+            if(frontier == 0){
+                break;
+            }
+
+            for(DataOutputStream worker : out){
+                worker.writeByte(EXPAND);
+                worker.writeLong(solutionRank);
+                worker.flush();
+            }
+            List<List<Discovery>> batches = new ArrayList<>();
+            for(int i=0; i<workers; i++){
+                batches.add(new ArrayList<>());
+            }
+            for(DataInputStream worker : in){
+                totalConfigs += worker.readInt();
+                for(int j=0; j<workers; j++){
+                    int size = worker.readInt();
+                    for(int k=0; k<size; k++){
+                        batches.get(j).add(new Discovery(readString(worker), worker.readLong(), readString(worker)));
+                    }
+                }
+            }
+            for(int j=0; j<workers; j++){
+                out[j].writeByte(MERGE);
+                out[j].writeInt(batches.get(j).size());
+                for(Discovery discovery : batches.get(j)){
+                    writeString(out[j], discovery.encoding());
+                    out[j].writeLong(discovery.order());
+                    writeString(out[j], discovery.parent());
+                }
+                out[j].flush();
+            }
+            long[][] orders = new long[workers][];
+            int next = 0;
+            for(int j=0; j<workers; j++){
+                orders[j] = new long[in[j].readInt()];
+                for(int k=0; k<orders[j].length; k++){
+                    orders[j][k] = in[j].readLong();
+                }
+                next += orders[j].length;
+            }
+            uniqueConfigs += next;
+            if(solution != null){
+                break;
+            }
+
+            long[] sorted = new long[next];
+            int filled = 0;
+            for(long[] order : orders){
+                System.arraycopy(order, 0, sorted, filled, order.length);
+                filled += order.length;
+            }
+            Arrays.sort(sorted);
+            for(int j=0; j<workers; j++){
+                out[j].writeByte(RANKS);
+                out[j].writeInt(orders[j].length);
+                for(long order : orders[j]){
+                    out[j].writeLong(Arrays.binarySearch(sorted, order));
+                }
+                out[j].flush();
+            }
+        }
+
+        Map<Configuration, Configuration> predecessor = new HashMap<>();
+        predecessor.put(initialConfig, null);
+        Configuration solutionConfig = null;
+        if(solution != null){
+            // the encodings from the solution back to the start, which the owners hand out one at a time
+            List<String> path = new ArrayList<>();
+            String encoding = solution;
+            while(!encoding.isEmpty()){
+                path.add(encoding);
+                int owner = owner(codec.key(codec.decode(encoding)), workers);
+                out[owner].writeByte(PARENT);
+                writeString(out[owner], encoding);
+                out[owner].flush();
+                encoding = readString(in[owner]);
+            }
+            // decoded configurations do not know the move that made them, so each step is taken from the
+            // neighbors of the one before it instead, starting from the caller's own configuration
+            Configuration current = initialConfig;
+            for(int i=path.size() - 2; i>=0; i--){
+                Configuration decoded = codec.decode(path.get(i));
+                Configuration next = decoded;
+                for(Configuration neighbor : current.getNeighbors()){
+                    if(neighbor.equals(decoded)){
+                        next = neighbor;
+                        break;
+                    }
+                }
+                predecessor.put(next, current);
+                current = next;
+            }
+            solutionConfig = current;
+        }
+        for(DataOutputStream worker : out){
+            worker.writeByte(STOP);
+            worker.flush();
+        }
+        return new SearchResult(totalConfigs, uniqueConfigs, predecessor, solutionConfig);
+    }
+
+    /**
+     * Serves one coordinator until it says to stop.
+     * @param in stream from the coordinator
+     * @param out stream to the coordinator
+     * @throws IOException if the connection fails
+     * @throws ClassNotFoundException if the codec's class cannot be found
+     */
+    private static void work(DataInputStream in, DataOutputStream out) throws IOException, ClassNotFoundException {
+        if(in.readByte() != INIT){
+            throw new IOException("Expected the coordinator to start with INIT");
+        }
+        int self = in.readInt();
+        int workers = in.readInt();
+        byte[] codecBytes = new byte[in.readInt()];
+        in.readFully(codecBytes);
+        ConfigurationCodec codec;
+        try(ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(codecBytes))){
+            codec = (ConfigurationCodec) objects.readObject();
+        }
+
+        // every configuration this worker owns, with the encoding of the configuration it was found from
+        Map<Configuration, String> parents = new HashMap<>();
+        List<Configuration> frontier = new ArrayList<>();
+        List<String> frontierEncodings = new ArrayList<>();
+        long[] frontierRanks = new long[0];
+        List<Configuration> next = new ArrayList<>();
+        List<String> nextEncodings = new ArrayList<>();
+
+        while(true){
+            byte command = in.readByte();
+            switch(command){
+                case SEED -> {
+                    String encoding = readString(in);
+                    Configuration initial = codec.decodeInitial(encoding);
+                    parents.put(initial, "");
+                    frontier = new ArrayList<>(List.of(initial));
+                    frontierEncodings = new ArrayList<>(List.of(encoding));
+                    frontierRanks = new long[]{0};
+                }
+                case CHECK -> {
+                    int i = 0;
+                    while(i < frontier.size() && !frontier.get(i).isSolution()){
+                        i++;
+                    }
+                    out.writeInt(frontier.size());
+                    out.writeLong(i < frontier.size() ? frontierRanks[i] : -1);
+                    writeString(out, i < frontier.size() ? frontierEncodings.get(i) : "");
+                    out.flush();
+                }
+                case EXPAND -> {
+                    long limit = in.readLong();
+                    int generated = 0;
+                    List<List<Discovery>> batches = new ArrayList<>();
+                    for(int j=0; j<workers; j++){
+                        batches.add(new ArrayList<>());
+                    }
+                    for(int i=0; i<frontier.size() && frontierRanks[i] < limit; i++){
+                        List<Configuration> neighbors = frontier.get(i).getNeighbors();
+                        for(int k=0; k<neighbors.size(); k++){
+                            generated++;
+                            Configuration neighbor = neighbors.get(k);
+                            String encoding = codec.encode(neighbor);
+                            int owner = owner(codec.key(neighbor), workers);
+                            if(owner == self && parents.containsKey(neighbor)){
+                                continue;
+                            }
+                            batches.get(owner).add(new Discovery(encoding,
+                                    frontierRanks[i] << INDEX_BITS | k, frontierEncodings.get(i)));
+                        }
+                    }
+                    out.writeInt(generated);
+                    for(List<Discovery> batch : batches){
+                        out.writeInt(batch.size());
+                        for(Discovery discovery : batch){
+                            writeString(out, discovery.encoding());
+                            out.writeLong(discovery.order());
+                            writeString(out, discovery.parent());
+                        }
+                    }
+                    out.flush();
+                }
+                case MERGE -> {
+                    int size = in.readInt();
+                    Map<Configuration, Discovery> first = new LinkedHashMap<>();
+                    for(int k=0; k<size; k++){
+                        Discovery discovery = new Discovery(readString(in), in.readLong(), readString(in));
+                        Configuration config = codec.decode(discovery.encoding());
+                        if(parents.containsKey(config)){
+                            continue;
+                        }
+                        Discovery best = first.get(config);
+                        if(best == null || discovery.order() < best.order()){
+                            first.put(config, discovery);
+                        }
+                    }
+                    List<Map.Entry<Configuration, Discovery>> found = new ArrayList<>(first.entrySet());
+                    found.sort((a, b) -> Long.compare(a.getValue().order(), b.getValue().order()));
+                    next = new ArrayList<>();
+                    nextEncodings = new ArrayList<>();
+                    out.writeInt(found.size());
+                    for(Map.Entry<Configuration, Discovery> entry : found){
+                        // the instance decoded from the winning parent's encoding is the one that gets expanded
+                        Configuration config = codec.decode(entry.getValue().encoding());
+                        parents.put(config, entry.getValue().parent());
+                        next.add(config);
+                        nextEncodings.add(entry.getValue().encoding());
+                        out.writeLong(entry.getValue().order());
+                    }
+                    out.flush();
+                }
+                case RANKS -> {
+                    frontierRanks = new long[in.readInt()];
+                    for(int k=0; k<frontierRanks.length; k++){
+                        frontierRanks[k] = in.readLong();
+                    }
+                    frontier = next;
+                    frontierEncodings = nextEncodings;
+                }
+                case PARENT -> {
+                    String parent = parents.get(codec.decode(readString(in)));
+                    writeString(out, parent == null ? "" : parent);
+                    out.flush();
+                }
+                case STOP -> {
+                    return;
+                }
+                default -> throw new IOException("Unknown command " + command);
+            }
+        }
+    }
+
+    /**
+     * Runs a worker process, started by {@link #search(Configuration, ConfigurationCodec, int)}.
+     * @param args "worker" and the port of the coordinator
+     * @throws IOException if the connection fails
+     * @throws ClassNotFoundException if the codec's class cannot be found
+     */
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        if(args.length != 2 || !args[0].equals("worker")){
+            System.out.println("Usage: java DistributedSolver worker port");
+        }
+        else{
+            try(Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(args[1]))){
+                work(new DataInputStream(new BufferedInputStream(socket.getInputStream())),
+                        new DataOutputStream(new BufferedOutputStream(socket.getOutputStream())));
+            }
+        }
+    }
+}
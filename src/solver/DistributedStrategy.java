@@ -0,0 +1,40 @@
+package solver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * The multi-process search of {@link DistributedSolver}, with one worker process per thread in the options.
+ * It needs the puzzle's codec, and does not apply the state or time limits.
+ *
+ * @author Eli Lurie
+ */
+public class DistributedStrategy implements SearchStrategy {
+    /**
+     * Returns the name of this strategy.
+     * @return "distributed"
+     */
+    public String name(){
+        return "distributed";
+    }
+
+    /**
+     * Searches breadth first on worker processes.
+     * @param initialConfig starting configuration
+     * @param options the codec and the number of worker processes
+     * @return the configuration counts and, if found, the path to the solution
+     * @throws UnsupportedOperationException if the options have no codec
+     * @throws UncheckedIOException if a worker process fails
+     */
+    public SearchResult search(Configuration initialConfig, SearchOptions options){
+        if(options.getCodec() == null){
+            throw new UnsupportedOperationException("The distributed strategy is not available for this puzzle");
+        }
+        try{
+            return DistributedSolver.search(initialConfig, options.getCodec(), options.getThreads());
+        }
+        catch(IOException ex){
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package solver;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Checks ConcurrentFingerprintMap under contention and compares its insert throughput with
+ * ConcurrentHashMap and a synchronized HashMap. Every thread inserts the same keys in its own
+ * random order, which is the worst case for a parallel search where many threads find the same
+ * configuration at once.
+ *
+ * @author Eli Lurie
+ */
+public class FingerprintMapBenchmark {
+    private static final int ROUNDS = 5;
+
+    /**
+     * Makes the fingerprint of the i-th key, spread out so it does not look like a counter
+     * @param i key number
+     * @return fingerprint, never Long.MIN_VALUE
+     */
+    private static long fingerprint(int i){
+        return LongLongMap.mix(i + 1L) | 1;
+    }
+
+    /**
+     * Runs one insert per key on every thread at the same time
+     * @param threads number of threads
+     * @param keys number of keys
+     * @param putIfAbsent inserts a fingerprint with a predecessor, returns 1 if it was added and 0 otherwise
+     * @param winners if not null, records which thread added each key
+     * @return elapsed nanoseconds
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    private static long race(int threads, int keys, LongBinaryOperator putIfAbsent, AtomicIntegerArray winners)
+            throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for(int t=0; t<threads; t++){
+            int thread = t;
+            int[] order = new int[keys];
+            for(int i=0; i<keys; i++){
+                order[i] = i;
+            }
+            Random random = new Random(t);
+            for(int i=keys - 1; i>0; i--){
+                int j = random.nextInt(i + 1);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+            workers[t] = new Thread(() -> {
+                try{
+                    start.await();
+                }
+                catch(InterruptedException ex){
+                    return;
+                }
+                for(int i : order){
+                    if(putIfAbsent.applyAsLong(fingerprint(i), thread) == 1 && winners != null){
+                        if(!winners.compareAndSet(i, -1, thread)){
+                            throw new IllegalStateException("Key " + i + " was added twice");
+                        }
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for(Thread worker : workers){
+            worker.join();
+        }
+        return System.nanoTime() - begin;
+    }
+
+    /**
+     * Races the threads on a fresh map and checks that every key was added exactly once,
+     * and that the stored predecessor is the thread that added it
+     * @param threads number of threads
+     * @param keys number of keys
+     * @return elapsed nanoseconds
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    private static long stress(int threads, int keys) throws InterruptedException {
+        ConcurrentFingerprintMap map = new ConcurrentFingerprintMap(keys);
+        AtomicIntegerArray winners = new AtomicIntegerArray(keys);
+        for(int i=0; i<keys; i++){
+            winners.set(i, -1);
+        }
+        long time = race(threads, keys, (key, value) -> map.putIfAbsent(key, value) ? 1 : 0, winners);
+        if(map.size() != keys){
+            throw new IllegalStateException("Expected " + keys + " entries, found " + map.size());
+        }
+        for(int i=0; i<keys; i++){
+            if(winners.get(i) < 0 || map.get(fingerprint(i), -1) != winners.get(i)){
+                throw new IllegalStateException("Key " + i + " has the wrong predecessor");
+            }
+        }
+        if(map.containsKey(fingerprint(keys)) || map.get(fingerprint(keys), -1) != -1){
+            throw new IllegalStateException("Found a key that was never added");
+        }
+        return time;
+    }
+
+    /**
+     * Runs the stress check, then times each map
+     * @param args optionally the number of threads and the number of keys
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Math.max(4, Runtime.getRuntime().availableProcessors());
+        int keys = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        long fingerprintBest = Long.MAX_VALUE;
+        long concurrentBest = Long.MAX_VALUE;
+        long synchronizedBest = Long.MAX_VALUE;
+        for(int round=0; round<ROUNDS; round++){
+            fingerprintBest = Math.min(fingerprintBest, stress(threads, keys));
+
+            Map<Long, Long> concurrent = new ConcurrentHashMap<>(keys * 2);
+            concurrentBest = Math.min(concurrentBest,
+                    race(threads, keys, (key, value) -> concurrent.putIfAbsent(key, value) == null ? 1 : 0, null));
+
+            Map<Long, Long> locked = Collections.synchronizedMap(new HashMap<>(keys * 2));
+            synchronizedBest = Math.min(synchronizedBest,
+                    race(threads, keys, (key, value) -> locked.putIfAbsent(key, value) == null ? 1 : 0, null));
+        }
+        System.out.println("Stress check passed: " + ROUNDS + " rounds of " + threads + " threads racing on " +
+                keys + " keys");
+        double inserts = (double) threads * keys;
+        System.out.printf("ConcurrentFingerprintMap %8.1f M inserts/s%n", inserts / fingerprintBest * 1e3);
+        System.out.printf("ConcurrentHashMap        %8.1f M inserts/s%n", inserts / concurrentBest * 1e3);
+        System.out.printf("synchronized HashMap     %8.1f M inserts/s%n", inserts / synchronizedBest * 1e3);
+    }
+}
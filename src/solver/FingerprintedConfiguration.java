@@ -0,0 +1,16 @@
+package solver;
+
+/**
+ * A configuration with a 64 bit fingerprint, used where configurations are remembered by a number
+ * instead of by the object, such as the transposition table of {@link IterativeDeepeningStrategy}.
+ *
+ * @author Eli Lurie
+ */
+public interface FingerprintedConfiguration extends Configuration {
+    /**
+     * Returns the fingerprint. Equal configurations must have equal fingerprints, and unequal configurations
+     * should share one so rarely that it can be ignored.
+     * @return 64 bit fingerprint
+     */
+    long fingerprint();
+}
@@ -0,0 +1,15 @@
+package solver;
+
+/**
+ * A configuration that can estimate how far it is from a solution, used by {@link AStarStrategy}.
+ *
+ * @author Eli Lurie
+ */
+public interface HeuristicConfiguration extends Configuration {
+    /**
+     * Estimates the moves left to a solution. The estimate must never be more than the moves in the shortest
+     * solution, and must not drop by more than one per move, or the search may not find the shortest path.
+     * @return estimated moves left, 0 for a solution
+     */
+    int estimate();
+}
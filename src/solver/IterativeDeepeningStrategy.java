@@ -0,0 +1,175 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An iterative deepening depth first search: depth first searches limited to 0 moves, then 1, then 2, and so
+ * on, until one reaches a solution. The first solution found is a shortest one, like with a breadth first search,
+ * but the memory used stays the same however many configurations there are: the path being searched, and a
+ * {@link TranspositionTable} of fixed size that remembers how few moves each configuration took to reach in the
+ * current iteration. A configuration reached again in no fewer moves is not searched again.
+ * <p>
+ * Only configurations that implement {@link FingerprintedConfiguration} are remembered. Others are searched
+ * every way they can be reached, which is correct but can take exponentially longer. Configurations that
+ * implement {@link HeuristicConfiguration} are not expanded once their estimate says no solution is left
+ * within the bound.
+ * <p>
+ * The depth first searches keep their own stack of the neighbors left to search at each depth instead of
+ * recursing, so a deep bound cannot overflow the thread's stack.
+ * <p>
+ * The total configurations of the result counts neighbors generated over every iteration, and the unique
+ * configurations counts the configurations searched in the last one.
+ *
+ * @author Eli Lurie
+ */
+public class IterativeDeepeningStrategy implements SearchStrategy {
+    // the table keeps depths in 16 bits
+    private static final int MAX_BOUND = (1 << 16) - 2;
+
+    /**
+     * Returns the name of this strategy.
+     * @return "iddfs"
+     */
+    public String name(){
+        return "iddfs";
+    }
+
+    /**
+     * Searches with deeper and deeper depth first searches.
+     * @param initialConfig starting configuration
+     * @param options limits of the search, and the size of the transposition table
+     * @return the configuration counts and, if found, the path to the solution
+     */
+    public SearchResult search(Configuration initialConfig, SearchOptions options){
+        Deepening search = new Deepening(options, new TranspositionTable(options.getTableMegabytes()));
+        for(int bound=0; bound<=MAX_BOUND; bound++){
+            search.iteration = bound + 1;
+            search.searched = 0;
+            search.cutoff = false;
+            search.path.clear();
+            if(search.visit(initialConfig, bound)){
+                Map<Configuration, Configuration> predecessor = new HashMap<>();
+                Configuration previous = null;
+                for(Configuration config : search.path){
+                    predecessor.put(config, previous);
+                    previous = config;
+                }
+                return new SearchResult(search.totalConfigs, search.searched, predecessor, previous);
+            }
+            if(!search.cutoff){
+                // no path reached the bound without repeating itself, so every reachable configuration was searched
+                Map<Configuration, Configuration> predecessor = new HashMap<>();
+                predecessor.put(initialConfig, null);
+                return new SearchResult(search.totalConfigs, search.searched, predecessor, null);
+            }
+        }
+        throw new SearchLimitException("Gave up after searching " + MAX_BOUND + " moves deep");
+    }
+
+    /**
+     * Estimates the moves left from a configuration.
+     * @param config the configuration
+     * @return its estimate, or 0 if it cannot estimate
+     */
+    private static int estimate(Configuration config){
+        return config instanceof HeuristicConfiguration heuristic ? heuristic.estimate() : 0;
+    }
+
+    /**
+     * The state of one search, shared by every iteration
+     */
+    private static class Deepening {
+        private final SearchOptions options;
+        private final TranspositionTable table;
+        private final long deadline;
+        // the configurations being searched, one per depth from the start
+        private final List<Configuration> path = new ArrayList<>();
+        // for each configuration on the path, its neighbors not searched yet
+        private final List<Iterator<Configuration>> pending = new ArrayList<>();
+        private int iteration;
+        private int searched;
+        private int totalConfigs;
+        // whether a configuration was stopped at the bound, so a deeper iteration could find more
+        private boolean cutoff;
+
+        /**
+         * Creates the state of a search that starts now
+         * @param options limits of the search
+         * @param table table of configurations already searched
+         */
+        private Deepening(SearchOptions options, TranspositionTable table){
+            this.options = options;
+            this.table = table;
+            this.deadline = options.deadline();
+        }
+
+        /**
+         * Searches depth first from the start, leaving the path to the solution in {@link #path} if one is found.
+         * @param initialConfig starting configuration
+         * @param bound most moves from the start to search
+         * @return true if a solution was found
+         */
+        private boolean visit(Configuration initialConfig, int bound){
+            pending.clear();
+            Configuration next = initialConfig;
+            while(true){
+                if(next != null && enter(next, path.size(), bound)){
+                    return true;
+                }
+                if(pending.isEmpty()){
+                    return false;
+                }
+                Iterator<Configuration> neighbors = pending.get(pending.size() - 1);
+                if(neighbors.hasNext()){
+                    totalConfigs++;
+                    next = neighbors.next();
+                }
+                else{
+                    // every neighbor of the deepest configuration was searched, so go back up
+                    pending.remove(pending.size() - 1);
+                    path.remove(path.size() - 1);
+                    next = null;
+                }
+            }
+        }
+
+        /**
+         * Starts searching a configuration, adding it and its neighbors to the top of the stack unless it is a
+         * solution, or is not to be searched within the bound.
+         * @param config the configuration
+         * @param depth moves from the start
+         * @param bound most moves from the start to search
+         * @return true if the configuration is a solution, which is then the last one on {@link #path}
+         */
+        private boolean enter(Configuration config, int depth, int bound){
+            if(config instanceof FingerprintedConfiguration fingerprinted){
+                long fingerprint = fingerprinted.fingerprint();
+                int known = table.get(fingerprint, iteration);
+                if(known != -1 && known <= depth){
+                    // already searched with at least as many moves to spare
+                    return false;
+                }
+                table.put(fingerprint, iteration, depth);
+            }
+            searched++;
+            if((searched & 1023) == 0){
+                options.checkLimits(searched, deadline);
+            }
+            if(config.isSolution()){
+                path.add(config);
+                return true;
+            }
+            if(depth == bound || depth + estimate(config) > bound){
+                cutoff = true;
+                return false;
+            }
+            path.add(config);
+            pending.add(config.getNeighbors().iterator());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package solver;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash map from long keys to long values, used by the solvers that pack their
+ * configurations into a single long so that no boxed objects are allocated per state.
+ *
+ * @author Eli Lurie
+ */
+class LongLongMap {
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    /**
+     * Creates an empty map
+     * @param expected number of entries expected, used to size the table
+     */
+    LongLongMap(int expected){
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Spreads the bits of a key so that keys differing only in high bits land in different slots
+     * @param key key to hash
+     * @return mixed hash
+     */
+    static long mix(long key){
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * Finds the slot of a key, or the empty slot where it would go
+     * @param key key to find
+     * @return slot index
+     */
+    private int slot(long key){
+        int mask = keys.length - 1;
+        int i = (int) mix(key) & mask;
+        while(keys[i] != EMPTY && keys[i] != key){
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * Determines if the key is in the map
+     * @param key key to find
+     * @return true if present, false otherwise
+     */
+    boolean containsKey(long key){
+        return keys[slot(key)] == key;
+    }
+
+    /**
+     * Returns the value of a key
+     * @param key key to find
+     * @param missing value to return if the key is not present
+     * @return the value, or missing
+     */
+    long get(long key, long missing){
+        int i = slot(key);
+        return keys[i] == key ? values[i] : missing;
+    }
+
+    /**
+     * Adds the key with the value if it is not already in the map
+     * @param key key to add, must not be Long.MIN_VALUE
+     * @param value value to add
+     * @return true if the key was added, false if it was already present
+     */
+    boolean putIfAbsent(long key, long value){
+        int i = slot(key);
+        if(keys[i] == key){
+            return false;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+        if(size * 2 > keys.length){
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of entries
+     * @return size
+     */
+    int size(){
+        return size;
+    }
+
+    /**
+     * Doubles the table and reinserts every entry
+     */
+    private void grow(){
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new long[oldValues.length * 2];
+        Arrays.fill(keys, EMPTY);
+        for(int j=0; j<oldKeys.length; j++){
+            if(oldKeys[j] != EMPTY){
+                int i = slot(oldKeys[j]);
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+}
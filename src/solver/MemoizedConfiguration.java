@@ -0,0 +1,23 @@
+package solver;
+
+/**
+ * A configuration whose shortest solutions are remembered between searches in a {@link SolutionMemo} shared by
+ * the whole process, so that searching again from a configuration on a solution already found, or from one that
+ * leads to it, takes less work. Its neighbors must say what move made them, see {@link Configuration#getMove()}.
+ *
+ * @author Eli Lurie
+ */
+public interface MemoizedConfiguration extends Configuration {
+    /**
+     * Returns the exact key the memo remembers the configuration by. Equal configurations, and only those,
+     * must have equal keys.
+     * @return the key
+     */
+    String memoKey();
+
+    /**
+     * Returns the memo shared by every configuration of the puzzle.
+     * @return the memo
+     */
+    SolutionMemo getMemo();
+}
@@ -0,0 +1,16 @@
+package solver;
+
+/**
+ * A compact description of one move, such as which figure went which way. A puzzle gives each neighbor it
+ * generates the move that made it, so hints, transcripts and other answers can say what to do without
+ * comparing boards.
+ *
+ * @author Eli Lurie
+ */
+public interface Move {
+    /**
+     * Describes the move in a few words, such as "tip north"
+     * @return the description
+     */
+    String toString();
+}
@@ -0,0 +1,135 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Configuration for water data that keeps the bucket levels in a primitive array.
+ * Unlike WaterConfiguration, neighbors copy one int array instead of boxed lists,
+ * and the hash code mixes every level so states with the same total do not collide.
+ */
+public class PackedWaterConfiguration implements FingerprintedConfiguration{
+    private final int[] max;
+    private final int[] current;
+    private final int solution;
+    private final int hash;
+
+    /**
+     * Constructor for a new PackedWaterConfiguration object
+     * @param max capacity of buckets, shared by every configuration of the puzzle
+     * @param current how full buckets are
+     * @param solution amount of water to find
+     */
+    public PackedWaterConfiguration(int[] max, int[] current, int solution){
+        this.max = max;
+        this.current = current;
+        this.solution = solution;
+        long packed = 1;
+        for(int level : current){
+            packed = 31 * packed + level;
+        }
+        this.hash = (int) LongLongMap.mix(packed);
+    }
+
+    /**
+     * Get the configurations that can be found from the current configuration by either filling a bucket,
+     * draining a bucket, or pouring a bucket into another bucket
+     * @return list of configurations
+     */
+    public List<Configuration> getNeighbors(){
+        List<Configuration> toReturn = new ArrayList<>(current.length * (current.length + 1));
+        for(int i=0; i<current.length; i++){
+            //fill
+            int[] newCurrent = current.clone();
+            newCurrent[i] = max[i];
+            toReturn.add(new PackedWaterConfiguration(max, newCurrent, solution));
+            //drain
+            int[] newCurrent2 = current.clone();
+            newCurrent2[i] = 0;
+            toReturn.add(new PackedWaterConfiguration(max, newCurrent2, solution));
+            //pour
+            for(int j=0; j<current.length; j++){
+                if(j != i){
+                    int[] toPour = current.clone();
+                    int poured = Math.min(current[i], max[j] - current[j]);
+                    toPour[i] -= poured;
+                    toPour[j] += poured;
+                    toReturn.add(new PackedWaterConfiguration(max, toPour, solution));
+                }
+            }
+        }
+        return toReturn;
+    }
+
+    /**
+     * Proves the amount unreachable from empty buckets when it is more than the largest bucket or not a
+     * multiple of the gcd of the capacities, see {@link ArithmeticSolver#waterMaybeSolvable(int, int[])}
+     * @return false if there is certainly no solution, true if there may be one
+     */
+    @Override
+    public boolean mayBeSolvable(){
+        for(int level : current){
+            if(level != 0){
+                return true;
+            }
+        }
+        return isSolution() || ArithmeticSolver.waterMaybeSolvable(solution, max);
+    }
+
+    /**
+     * Determine if one of the buckets contains the wanted amount of water
+     * @return true if solution, false if otherwise
+     */
+    public boolean isSolution(){
+        for(int i : current){
+            if(i == solution){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the fingerprint, mixing in every bucket level one at a time
+     * @return 64 bit fingerprint
+     */
+    public long fingerprint(){
+        long fingerprint = 0;
+        for(int level : current){
+            fingerprint = LongLongMap.mix(31 * fingerprint + level + 1);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Overrides the hashCode method
+     * @return mixed hash of every bucket level
+     */
+    @Override
+    public int hashCode(){
+        return hash;
+    }
+
+    /**
+     * Overrides the equals method
+     * @param other object to compare to
+     * @return true if other is equal, false otherwise
+     */
+    @Override
+    public boolean equals(Object other){
+        if(other instanceof PackedWaterConfiguration newOther){
+            return this.hash == newOther.hash && Arrays.equals(this.current, newOther.current);
+        }
+        return false;
+    }
+
+    /**
+     * Overrides the toString method
+     * @return String of the current levels
+     */
+    @Override
+    public String toString(){
+        return Arrays.toString(current);
+    }
+}
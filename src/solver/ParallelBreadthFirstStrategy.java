@@ -0,0 +1,110 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A breadth first search that generates the neighbors of a whole level on several threads, then merges them
+ * on the calling thread in queue order. Generating neighbors is where the puzzles spend their time, and merging
+ * in order gives exactly the counts and path of the serial search.
+ *
+ * @author Eli Lurie
+ */
+public class ParallelBreadthFirstStrategy implements SearchStrategy {
+    /**
+     * Returns the name of this strategy.
+     * @return "parallel"
+     */
+    public String name(){
+        return "parallel";
+    }
+
+    /**
+     * Searches breadth first, one level at a time.
+     * @param initialConfig starting configuration
+     * @param options number of threads and limits of the search
+     * @return the configuration counts and, if found, the path to the solution
+     */
+    public SearchResult search(Configuration initialConfig, SearchOptions options){
+        long deadline = options.deadline();
+        ExecutorService pool = Executors.newFixedThreadPool(options.getThreads());
+        try{
+            Map<Configuration, Configuration> predecessor = new HashMap<>();
+            predecessor.put(initialConfig, null);
+            int totalConfigs = 0;
+            int uniqueConfigs = 0;
+
+            List<Configuration> level = List.of(initialConfig);
+            while(!level.isEmpty()){
+                List<List<Configuration>> neighbors = expand(pool, level, options.getThreads());
+                List<Configuration> next = new ArrayList<>();
+                for(int i=0; i<level.size(); i++){
+                    options.checkLimits(uniqueConfigs, deadline);
+                    Configuration current = level.get(i);
+                    if(current.isSolution()){
+                        return new SearchResult(totalConfigs, uniqueConfigs, predecessor, current,
+                                level.size() - i - 1 + next.size());
+                    }
+                    for(Configuration neighbor : neighbors.get(i)){
+                        totalConfigs++;
+                        if(!predecessor.containsKey(neighbor)){
+                            uniqueConfigs++;
+                            predecessor.put(neighbor, current);
+                            next.add(neighbor);
+                        }
+                    }
+                }
+                level = next;
+            }
+            return new SearchResult(totalConfigs, uniqueConfigs, predecessor, null, 0);
+        }
+        finally{
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Generates the neighbors of every configuration in a level, split into one chunk per thread.
+     * @param pool the threads
+     * @param level configurations to expand
+     * @param threads number of threads
+     * @return the neighbors of each configuration, in level order
+     */
+    private static List<List<Configuration>> expand(ExecutorService pool, List<Configuration> level, int threads){
+        int chunk = (level.size() + threads - 1) / threads;
+        List<Future<List<List<Configuration>>>> futures = new ArrayList<>();
+        for(int start=0; start<level.size(); start+=chunk){
+            List<Configuration> part = level.subList(start, Math.min(level.size(), start + chunk));
+            futures.add(pool.submit(() -> {
+                List<List<Configuration>> neighbors = new ArrayList<>(part.size());
+                for(Configuration config : part){
+                    neighbors.add(config.isSolution() ? List.of() : config.getNeighbors());
+                }
+                return neighbors;
+            }));
+        }
+        List<List<Configuration>> neighbors = new ArrayList<>(level.size());
+        try{
+            for(Future<List<List<Configuration>>> future : futures){
+                neighbors.addAll(future.get());
+            }
+        }
+        catch(InterruptedException ex){
+            Thread.currentThread().interrupt();
+            throw new SearchLimitException("Interrupted");
+        }
+        catch(ExecutionException ex){
+            if(ex.getCause() instanceof RuntimeException cause){
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+        return neighbors;
+    }
+}
@@ -0,0 +1,18 @@
+package solver;
+
+/**
+ * Thrown when a search passes its state or time limit before finding a solution or running out of configurations.
+ *
+ * @author Eli Lurie
+ */
+public class SearchLimitException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates the exception.
+     * @param message which limit was passed
+     */
+    public SearchLimitException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,187 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The search options shared by every puzzle launcher:
+ * <pre>
+ *     --strategy name   the search strategy to use, bfs by default (see {@link SearchStrategies})
+ *     --threads n       threads or worker processes for strategies that use them, the number of cores by default
+ *     --max-states n    give up after finding this many unique configurations
+ *     --timeout ms      give up after this many milliseconds
+ *     --table-mb n      megabytes of transposition table for strategies that keep one, 64 by default
+ * </pre>
+ * The options may appear anywhere among the launcher's own arguments.
+ *
+ * @author Eli Lurie
+ */
+public class SearchOptions {
+    private String strategy = "bfs";
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int maxStates = Integer.MAX_VALUE;
+    private long timeout = 0;
+    private int tableMegabytes = 64;
+    private ConfigurationCodec codec;
+    private final List<String> arguments = new ArrayList<>();
+
+    /**
+     * Reads the search options out of a launcher's command line.
+     * @param args the command line
+     * @return the options, with every other argument kept in order in {@link #getArguments()}
+     * @throws IllegalArgumentException if an option is unknown, has no value, or has a bad value
+     */
+    public static SearchOptions parse(String[] args){
+        SearchOptions options = new SearchOptions();
+        for(int i=0; i<args.length; i++){
+            if(!args[i].startsWith("--")){
+                options.arguments.add(args[i]);
+                continue;
+            }
+            if(i + 1 == args.length){
+                throw new IllegalArgumentException(args[i] + " needs a value");
+            }
+            String value = args[++i];
+            switch(args[i - 1]){
+                case "--strategy" -> options.strategy = SearchStrategies.get(value).name();
+                case "--threads" -> options.threads = positive(args[i - 1], value);
+                case "--max-states" -> options.maxStates = positive(args[i - 1], value);
+                case "--timeout" -> options.timeout = positive(args[i - 1], value);
+                case "--table-mb" -> options.tableMegabytes = positive(args[i - 1], value);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i - 1]);
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Reads the search options out of a launcher's command line, printing what is wrong with them if they are bad.
+     * @param args the command line
+     * @return the options, or null if they are bad
+     */
+    public static SearchOptions tryParse(String[] args){
+        try{
+            return parse(args);
+        }
+        catch(IllegalArgumentException ex){
+            System.out.println(ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Reads a positive number
+     * @param option name of the option, for the error message
+     * @param value text of the number
+     * @return the number
+     * @throws IllegalArgumentException if the value is not a positive number
+     */
+    private static int positive(String option, String value){
+        try{
+            int number = Integer.parseInt(value);
+            if(number > 0){
+                return number;
+            }
+        }
+        catch(NumberFormatException ex){
+            // reported below
+        }
+        throw new IllegalArgumentException(option + " needs a positive number, not " + value);
+    }
+
+    /**
+     * Returns the usage text of the options, for the launchers' usage messages.
+     * @return usage text
+     */
+    public static String usage(){
+        return "[--strategy " + String.join("|", SearchStrategies.names()) +
+                "] [--threads n] [--max-states n] [--timeout ms] [--table-mb n]";
+    }
+
+    /**
+     * Returns the arguments that were not search options.
+     * @return arguments in their original order
+     */
+    public List<String> getArguments(){
+        return arguments;
+    }
+
+    /**
+     * Returns the name of the search strategy.
+     * @return strategy name
+     */
+    public String getStrategy(){
+        return strategy;
+    }
+
+    /**
+     * Returns the number of threads or worker processes.
+     * @return threads
+     */
+    public int getThreads(){
+        return threads;
+    }
+
+    /**
+     * Returns the most unique configurations a search may find.
+     * @return maximum number of states
+     */
+    public int getMaxStates(){
+        return maxStates;
+    }
+
+    /**
+     * Returns how long a search may run.
+     * @return milliseconds, or 0 for no limit
+     */
+    public long getTimeout(){
+        return timeout;
+    }
+
+    /**
+     * Returns the size of the transposition table for strategies that keep one.
+     * @return megabytes
+     */
+    public int getTableMegabytes(){
+        return tableMegabytes;
+    }
+
+    /**
+     * Returns the codec that strategies running in several processes use to send configurations.
+     * @return the codec, or null if the puzzle has none
+     */
+    public ConfigurationCodec getCodec(){
+        return codec;
+    }
+
+    /**
+     * Sets the codec that strategies running in several processes use to send configurations.
+     * @param codec the puzzle's codec
+     */
+    public void setCodec(ConfigurationCodec codec){
+        this.codec = codec;
+    }
+
+    /**
+     * Computes when a search that starts now must stop.
+     * @return deadline in {@link System#nanoTime()} units, or Long.MAX_VALUE for no limit
+     */
+    long deadline(){
+        return timeout == 0 ? Long.MAX_VALUE : System.nanoTime() + timeout * 1_000_000;
+    }
+
+    /**
+     * Stops a search that has gone past its limits.
+     * @param states unique configurations found so far
+     * @param deadline value of {@link #deadline()} when the search started
+     * @throws SearchLimitException if a limit was passed
+     */
+    void checkLimits(int states, long deadline){
+        if(states > maxStates){
+            throw new SearchLimitException("Gave up after finding " + maxStates + " configurations");
+        }
+        if(deadline != Long.MAX_VALUE && System.nanoTime() > deadline){
+            throw new SearchLimitException("Gave up after " + timeout + " ms");
+        }
+    }
+}
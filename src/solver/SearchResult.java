@@ -0,0 +1,147 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The outcome of a search: how many configurations were seen, and the
+ * path to the solution if one was found.
+ *
+ * @author Eli Lurie
+ */
+public class SearchResult {
+    private final int totalConfigs;
+    private final int uniqueConfigs;
+    private final Map<Configuration, Configuration> predecessor;
+    private final Configuration solution;
+    private final int frontierSize;
+
+    /**
+     * Creates a new search result whose frontier size is not known.
+     * @param totalConfigs total number of configurations computed
+     * @param uniqueConfigs number of unique configurations found
+     * @param predecessor map containing configurations as keys, and the configurations they were found from as values
+     * @param solution the solution configuration, or null if there is none
+     */
+    public SearchResult(int totalConfigs, int uniqueConfigs, Map<Configuration, Configuration> predecessor,
+                        Configuration solution){
+        this(totalConfigs, uniqueConfigs, predecessor, solution, 0);
+    }
+
+    /**
+     * Creates a new search result.
+     * @param totalConfigs total number of configurations computed
+     * @param uniqueConfigs number of unique configurations found
+     * @param predecessor map containing configurations as keys, and the configurations they were found from as values
+     * @param solution the solution configuration, or null if there is none
+     * @param frontierSize number of configurations still waiting to be expanded when the search stopped
+     */
+    public SearchResult(int totalConfigs, int uniqueConfigs, Map<Configuration, Configuration> predecessor,
+                        Configuration solution, int frontierSize){
+        this.totalConfigs = totalConfigs;
+        this.uniqueConfigs = uniqueConfigs;
+        this.predecessor = predecessor;
+        this.solution = solution;
+        this.frontierSize = frontierSize;
+    }
+
+    /**
+     * Returns the total number of configurations computed.
+     * @return total configs
+     */
+    public int getTotalConfigs(){
+        return totalConfigs;
+    }
+
+    /**
+     * Returns the number of unique configurations found.
+     * @return unique configs
+     */
+    public int getUniqueConfigs(){
+        return uniqueConfigs;
+    }
+
+    /**
+     * Returns the map from each configuration to the configuration it was found from.
+     * @return predecessor map
+     */
+    public Map<Configuration, Configuration> getPredecessors(){
+        return predecessor;
+    }
+
+    /**
+     * Returns the solution configuration.
+     * @return the solution, or null if there is none
+     */
+    public Configuration getSolution(){
+        return solution;
+    }
+
+    /**
+     * Returns the number of configurations still waiting to be expanded when the search stopped.
+     * @return frontier size, or 0 if not known
+     */
+    public int getFrontierSize(){
+        return frontierSize;
+    }
+
+    /**
+     * Determines whether a solution was found.
+     * @return true if solved, false otherwise
+     */
+    public boolean isSolved(){
+        return solution != null;
+    }
+
+    /**
+     * Returns every configuration from the start to the solution.
+     * @return the path, or null if there is no solution
+     */
+    public List<Configuration> getPath(){
+        if(solution == null){
+            return null;
+        }
+        List<Configuration> path = new LinkedList<>();
+        Configuration current = solution;
+        while(current != null){
+            path.add(0, current);
+            current = predecessor.get(current);
+        }
+        return path;
+    }
+
+    /**
+     * Returns the moves from the start to the solution, read from the configurations of the path. Each is the
+     * move that made a step from the one before it.
+     * @return one move per step after the start, null where a strategy could not keep the move, or null if there
+     * is no solution
+     */
+    public List<Move> getMoves(){
+        List<Configuration> path = getPath();
+        if(path == null){
+            return null;
+        }
+        List<Move> moves = new ArrayList<>(path.size() - 1);
+        for(Configuration step : path.subList(1, path.size())){
+            moves.add(step.getMove());
+        }
+        return moves;
+    }
+
+    /**
+     * Returns the number of moves in the shortest solution.
+     * @return number of moves, or -1 if there is no solution
+     */
+    public int getDepth(){
+        if(solution == null){
+            return -1;
+        }
+        int depth = 0;
+        for(Configuration current = predecessor.get(solution); current != null; current = predecessor.get(current)){
+            depth++;
+        }
+        return depth;
+    }
+}
@@ -0,0 +1,72 @@
+package solver;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * The search strategies that can be chosen by name with --strategy:
+ * <ul>
+ *     <li>bfs: the serial breadth first search, the default</li>
+ *     <li>parallel: breadth first, generating each level's neighbors on several threads</li>
+ *     <li>astar: A*, using the estimates of configurations that provide them</li>
+ *     <li>distributed: breadth first on several worker processes</li>
+ *     <li>iddfs: iterative deepening depth first, in a fixed amount of memory</li>
+ * </ul>
+ * Strategies provided as services of {@link SearchStrategy} are added after these.
+ *
+ * @author Eli Lurie
+ */
+public final class SearchStrategies {
+    private static final Map<String, SearchStrategy> STRATEGIES = new LinkedHashMap<>();
+
+    static{
+        register(new BreadthFirstStrategy());
+        register(new ParallelBreadthFirstStrategy());
+        register(new AStarStrategy());
+        register(new DistributedStrategy());
+        register(new IterativeDeepeningStrategy());
+        for(SearchStrategy strategy : ServiceLoader.load(SearchStrategy.class)){
+            register(strategy);
+        }
+    }
+
+    /**
+     * Not used, this class only has static methods.
+     */
+    private SearchStrategies(){
+    }
+
+    /**
+     * Adds a strategy, replacing any strategy with the same name.
+     * @param strategy the strategy
+     */
+    public static synchronized void register(SearchStrategy strategy){
+        STRATEGIES.put(strategy.name(), strategy);
+    }
+
+    /**
+     * Finds a strategy by name.
+     * @param name name of the strategy
+     * @return the strategy
+     * @throws IllegalArgumentException if there is no strategy with that name
+     */
+    public static synchronized SearchStrategy get(String name){
+        SearchStrategy strategy = STRATEGIES.get(name);
+        if(strategy == null){
+            throw new IllegalArgumentException("Unknown strategy " + name + ", expected one of " + names());
+        }
+        return strategy;
+    }
+
+    /**
+     * Returns the names of every strategy.
+     * @return names in the order they were registered
+     */
+    public static synchronized Set<String> names(){
+        return Collections.unmodifiableSet(new LinkedHashSet<>(STRATEGIES.keySet()));
+    }
+}
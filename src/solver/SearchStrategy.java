@@ -0,0 +1,25 @@
+package solver;
+
+/**
+ * A way of searching from a starting configuration to a solution. Strategies are looked up by name in
+ * {@link SearchStrategies}; other modules can add their own by registering them there, or by providing
+ * this interface as a service.
+ *
+ * @author Eli Lurie
+ */
+public interface SearchStrategy {
+    /**
+     * Returns the name used to select this strategy with --strategy.
+     * @return name
+     */
+    String name();
+
+    /**
+     * Searches for a solution.
+     * @param initialConfig starting configuration
+     * @param options thread count and limits of the search
+     * @return the configuration counts and, if found, the path to the solution
+     * @throws SearchLimitException if the search passes a limit in the options
+     */
+    SearchResult search(Configuration initialConfig, SearchOptions options);
+}
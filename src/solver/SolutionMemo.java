@@ -0,0 +1,230 @@
+package solver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers, for configurations on shortest solutions already found, how many moves they are from a solution and
+ * which move to make. {@link Solver#search(Configuration)} fills it in after every solve and looks up each
+ * configuration it expands, so searches from the same boards at different points of play stop early.
+ * <br><br>
+ * Any number of searches may use the memo at once. Lookups do not lock. The memo stays within a budget of
+ * roughly estimated heap bytes, and evicts with the CLOCK algorithm: entries sit in a ring, a lookup marks its
+ * entry as used, and to make room a hand sweeps the ring, clearing marks, until it comes to an entry that was
+ * not used since the hand last passed it. For a {@link FingerprintedConfiguration}, a lookup first checks the
+ * fingerprint, so the exact key is only built for configurations that may be remembered.
+ *
+ * @author Eli Lurie
+ */
+public class SolutionMemo {
+    // estimated bytes of an entry apart from its key: the entry, its hash map node and its slot in the ring
+    private static final int ENTRY_BYTES = 96;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // how many entries have each fingerprint, for the configurations that have one; changed only while holding this
+    private final ConcurrentHashMap<Long, Integer> fingerprints = new ConcurrentHashMap<>();
+    // the ring, guarded by this; a slot is null once its entry has been evicted, until it is reused
+    private final List<Entry> ring = new ArrayList<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private int hand;
+    private long budget;
+    private long used;
+
+    /**
+     * One remembered configuration
+     */
+    private static final class Entry {
+        private final String key;
+        // the configuration's fingerprint, or null if it has none
+        private final Long fingerprint;
+        private final int distance;
+        private final Move move;
+        // set by lookups, cleared by the clock hand
+        private volatile boolean referenced;
+
+        /**
+         * Creates an entry
+         * @param key key of the configuration
+         * @param fingerprint fingerprint of the configuration, or null if it has none
+         * @param distance moves from the configuration to a solution
+         * @param move the first of those moves
+         */
+        private Entry(String key, Long fingerprint, int distance, Move move){
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.distance = distance;
+            this.move = move;
+        }
+
+        /**
+         * Estimates the heap bytes the entry takes
+         * @return bytes
+         */
+        private long bytes(){
+            return ENTRY_BYTES + 2L * key.length();
+        }
+    }
+
+    /**
+     * Creates an empty memo
+     * @param budget most bytes the entries may take, roughly
+     * @throws IllegalArgumentException if the budget is negative
+     */
+    public SolutionMemo(long budget){
+        this.budget = checkBudget(budget);
+    }
+
+    /**
+     * Changes the budget, evicting entries if the memo no longer fits
+     * @param budget most bytes the entries may take, roughly
+     * @throws IllegalArgumentException if the budget is negative
+     */
+    public synchronized void setBudget(long budget){
+        this.budget = checkBudget(budget);
+        while(used > budget && evict()){
+            // evicted one entry
+        }
+    }
+
+    /**
+     * Checks a budget
+     * @param budget most bytes the entries may take
+     * @return the budget
+     * @throws IllegalArgumentException if the budget is negative
+     */
+    private static long checkBudget(long budget){
+        if(budget < 0){
+            throw new IllegalArgumentException("The memo budget cannot be negative, not " + budget);
+        }
+        return budget;
+    }
+
+    /**
+     * Returns the budget
+     * @return most bytes the entries may take
+     */
+    public synchronized long getBudget(){
+        return budget;
+    }
+
+    /**
+     * Returns the number of configurations remembered
+     * @return number of entries
+     */
+    public int size(){
+        return entries.size();
+    }
+
+    /**
+     * Follows remembered moves from a configuration to a solution.
+     * @param config where to start
+     * @return every configuration from config to the solution, config first, or null if config is not
+     * remembered, or the entries along the way were evicted while following them
+     */
+    public List<Configuration> follow(MemoizedConfiguration config){
+        if(config instanceof FingerprintedConfiguration fingerprinted &&
+                !fingerprints.containsKey(fingerprinted.fingerprint())){
+            return null;
+        }
+        if(!entries.containsKey(config.memoKey())){
+            return null;
+        }
+        List<Configuration> path = new ArrayList<>();
+        path.add(config);
+        Configuration current = config;
+        // entries are exact, so each move must bring the solution one move closer
+        int distance = -1;
+        while(!current.isSolution()){
+            Entry entry = entries.get(((MemoizedConfiguration) current).memoKey());
+            if(entry == null || (distance != -1 && entry.distance != distance)){
+                return null;
+            }
+            entry.referenced = true;
+            distance = entry.distance - 1;
+            Configuration next = null;
+            for(Configuration neighbor : current.getNeighbors()){
+                if(entry.move.equals(neighbor.getMove())){
+                    next = neighbor;
+                    break;
+                }
+            }
+            if(next == null){
+                return null;
+            }
+            path.add(next);
+            current = next;
+        }
+        return path;
+    }
+
+    /**
+     * Remembers every configuration of a shortest solution, except the solution itself.
+     * @param path every configuration from the start to the solution, each made by getNeighbors from the one
+     *             before it, apart from the start
+     */
+    public synchronized void remember(List<Configuration> path){
+        for(int i=0; i<path.size() - 1; i++){
+            Move move = path.get(i + 1).getMove();
+            if(move == null){
+                continue;
+            }
+            Configuration config = path.get(i);
+            Long fingerprint = config instanceof FingerprintedConfiguration fingerprinted ?
+                    fingerprinted.fingerprint() : null;
+            Entry entry = new Entry(((MemoizedConfiguration) config).memoKey(), fingerprint, path.size() - 1 - i, move);
+            if(entries.containsKey(entry.key) || entry.bytes() > budget){
+                continue;
+            }
+            while(used + entry.bytes() > budget && evict()){
+                // evicted one entry
+            }
+            if(freeSlots.isEmpty()){
+                ring.add(entry);
+            }
+            else{
+                ring.set(freeSlots.pop(), entry);
+            }
+            if(fingerprint != null){
+                fingerprints.merge(fingerprint, 1, Integer::sum);
+            }
+            entries.put(entry.key, entry);
+            used += entry.bytes();
+        }
+    }
+
+    /**
+     * Moves the clock hand on to the first entry not used since the hand last passed it, clearing the marks of
+     * the used entries it passes, and evicts that entry.
+     * @return true if an entry was evicted, false if the memo is empty
+     */
+    private boolean evict(){
+        if(entries.isEmpty()){
+            return false;
+        }
+        while(true){
+            if(hand >= ring.size()){
+                hand = 0;
+            }
+            Entry entry = ring.get(hand);
+            if(entry != null){
+                if(entry.referenced){
+                    entry.referenced = false;
+                }
+                else{
+                    ring.set(hand, null);
+                    freeSlots.push(hand);
+                    entries.remove(entry.key);
+                    if(entry.fingerprint != null){
+                        fingerprints.computeIfPresent(entry.fingerprint, (fingerprint, count) -> count == 1 ? null : count - 1);
+                    }
+                    used -= entry.bytes();
+                    hand++;
+                    return true;
+                }
+            }
+            hand++;
+        }
+    }
+}
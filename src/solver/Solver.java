@@ -1,5 +1,11 @@
 package solver;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
 import java.util.*;
 
 /**
@@ -12,10 +18,43 @@ public class Solver {
     /**
      * Performs a breadth first search starting with the inputted configuration.
      * @param initialConfig starting configuration
+     * @return the configuration counts and, if found, the path to the solution
      */
-    public static Configuration solver(Configuration initialConfig, boolean toDisplay){
+    public static SearchResult search(Configuration initialConfig){
+        return search(initialConfig, initialConfig.getClass().getSimpleName());
+    }
+
+    /**
+     * Performs a breadth first search starting with the inputted configuration,
+     * and reports it to Java Flight Recorder under the given puzzle name.
+     * @param initialConfig starting configuration
+     * @param puzzle name of the puzzle in the recorded events
+     * @return the configuration counts and, if found, the path to the solution
+     */
+    public static SearchResult search(Configuration initialConfig, String puzzle){
+        return search(initialConfig, puzzle, null);
+    }
+
+    /**
+     * Performs a breadth first search that stops when it passes the limits in the options.
+     * For a {@link MemoizedConfiguration}, the search looks up each configuration it expands in the puzzle's
+     * memo. It stops once no solution shorter than the one through the memo can be left. If the start itself
+     * is in the memo, it stops at once. Every solution found is added to the memo.
+     * @param initialConfig starting configuration
+     * @param puzzle name of the puzzle in the recorded events
+     * @param limits the limits, or null for none
+     * @return the configuration counts and, if found, the path to the solution
+     * @throws SearchLimitException if the search passes a limit
+     */
+    static SearchResult search(Configuration initialConfig, String puzzle, SearchOptions limits){
+        long deadline = limits == null ? Long.MAX_VALUE : limits.deadline();
+        SolverEvents.Search searchEvent = new SolverEvents.Search();
+        searchEvent.begin();
+
         Queue<Configuration> queue = new LinkedList<>();
-        queue.offer(initialConfig);
+        if(initialConfig.mayBeSolvable()){
+            queue.offer(initialConfig);
+        }
 
         Map<Configuration, Configuration> predecessor = new HashMap<>();
         predecessor.put(initialConfig, null);
@@ -23,22 +62,49 @@ public class Solver {
         int totalConfigs = 0;
         int uniqueConfigs = 0;
 
-        boolean foundSolution = false;
+        // the queue holds the rest of the current level followed by the start of the next one
+        int depth = 0;
+        int levelRemaining = 1;
+        SolverEvents.Level levelEvent = new SolverEvents.Level();
+        levelEvent.begin();
+
+        // configurations a shortest solution was already found from are looked up in the puzzle's memo
+        SolutionMemo memo = initialConfig instanceof MemoizedConfiguration memoized ? memoized.getMemo() : null;
+        // the shortest way to a solution through a configuration in the memo, and its moves
+        List<Configuration> viaMemo = null;
+        int viaMemoMoves = Integer.MAX_VALUE;
 
+        Configuration solution = null;
         while(!queue.isEmpty()){
+            if(limits != null){
+                limits.checkLimits(uniqueConfigs, deadline);
+            }
             Configuration current = queue.remove();
             if(current.isSolution()){
-                if(toDisplay) {
-                    display(totalConfigs, uniqueConfigs, predecessor, current);
-                }
-                else{
-                    return nextMove(predecessor, current);
-                }
-                foundSolution = true;
+                solution = current;
+                break;
+            }
+            else if(depth >= viaMemoMoves){
+                // every solution shorter than the one through the memo would have been found by now
                 break;
             }
             else {
-                for (Configuration neighbor : current.getNeighbors()) {
+                if(memo != null && memo.size() > 0){
+                    List<Configuration> rest = memo.follow((MemoizedConfiguration) current);
+                    if(rest != null && depth + rest.size() - 1 < viaMemoMoves){
+                        viaMemo = rest;
+                        viaMemoMoves = depth + rest.size() - 1;
+                        if(depth == 0){
+                            // the memo's moves are a shortest solution from the start itself
+                            break;
+                        }
+                    }
+                }
+                SolverEvents.Neighbors neighborsEvent = new SolverEvents.Neighbors();
+                neighborsEvent.begin();
+                List<Configuration> neighbors = current.getNeighbors();
+                neighborsEvent.finish(puzzle, depth, neighbors.size(), queue.size(), predecessor.size());
+                for (Configuration neighbor : neighbors) {
                     totalConfigs++;
                     if (!predecessor.containsKey(neighbor)) {
                         uniqueConfigs++;
@@ -47,17 +113,71 @@ public class Solver {
                     }
                 }
             }
-        }
-
-        if(!foundSolution) {
-            if(toDisplay) {
-                display(totalConfigs, uniqueConfigs, null, null);
+            if(--levelRemaining == 0){
+                levelEvent.finish(puzzle, depth, queue.size(), predecessor.size());
+                depth++;
+                levelRemaining = queue.size();
+                levelEvent = new SolverEvents.Level();
+                levelEvent.begin();
             }
-            else{
-                return null;
+        }
+        if(solution == null && viaMemo != null){
+            for(int i=1; i<viaMemo.size(); i++){
+                // a configuration the search already reached keeps the way it was reached, which is no longer
+                predecessor.putIfAbsent(viaMemo.get(i), viaMemo.get(i - 1));
             }
+            solution = viaMemo.get(viaMemo.size() - 1);
+        }
+        if(solution != null){
+            levelEvent.finish(puzzle, depth, queue.size(), predecessor.size());
+        }
+
+        SearchResult result = new SearchResult(totalConfigs, uniqueConfigs, predecessor, solution, queue.size());
+        if(solution != null && memo != null){
+            memo.remember(result.getPath());
+        }
+        searchEvent.finish(puzzle, result);
+        return result;
+    }
+
+    /**
+     * Performs a breadth first search starting with the inputted configuration.
+     * @param initialConfig starting configuration
+     */
+    public static Configuration solver(Configuration initialConfig, boolean toDisplay){
+        SearchResult result = search(initialConfig);
+        if(toDisplay) {
+            display(result.getTotalConfigs(), result.getUniqueConfigs(), result.getPredecessors(), result.getSolution());
+            return null;
+        }
+        return nextMove(result.getPredecessors(), result.getSolution());
+    }
+
+    /**
+     * Searches with the strategy and limits chosen on the command line and displays the path to the solution.
+     * @param initialConfig starting configuration
+     * @param options the launcher's search options
+     */
+    public static void solve(Configuration initialConfig, SearchOptions options){
+        SearchStrategy strategy;
+        try{
+            strategy = SearchStrategies.get(options.getStrategy());
+        }
+        catch(IllegalArgumentException ex){
+            // no strategy has that name
+            System.out.println(ex.getMessage());
+            return;
+        }
+        try{
+            // boards that are certainly unsolvable are not searched at all
+            SearchResult result = initialConfig.mayBeSolvable() ? strategy.search(initialConfig, options) :
+                    new SearchResult(0, 0, Collections.singletonMap(initialConfig, null), null);
+            display(result.getTotalConfigs(), result.getUniqueConfigs(), result.getPredecessors(), result.getSolution());
+        }
+        catch(SearchLimitException | UnsupportedOperationException ex){
+            // the search passed a limit, or the strategy cannot search this puzzle
+            System.out.println(ex.getMessage());
         }
-        return null;
     }
 
     /**
@@ -68,8 +188,32 @@ public class Solver {
      * @param lastConfig the solution configuration
      */
     public static void display(int totalConfigs, int uniqueConfigs, Map<Configuration, Configuration> configMap, Configuration lastConfig){
-        System.out.println("Total configs: " + totalConfigs);
-        System.out.println("Unique configs: " + uniqueConfigs);
+        // one large buffer, so a long transcript reaches System.out in a few big writes
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, Charset.defaultCharset()), 1 << 16);
+        try{
+            display(totalConfigs, uniqueConfigs, configMap, lastConfig, out);
+            out.flush();
+        }
+        catch(IOException ex){
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Writes the path to the final configuration using the inputted map, writing each configuration straight into
+     * the destination after the move that made it, if the puzzle describes its moves.
+     * @param totalConfigs total number of configurations computed
+     * @param uniqueConfigs number of unique configurations found
+     * @param configMap map containing configurations as keys, and the configurations they were found from as values
+     * @param lastConfig the solution configuration
+     * @param out where to write
+     * @throws IOException if out cannot be written to
+     */
+    public static void display(int totalConfigs, int uniqueConfigs, Map<Configuration, Configuration> configMap,
+                               Configuration lastConfig, Appendable out) throws IOException {
+        String newline = System.lineSeparator();
+        out.append("Total configs: ").append(Integer.toString(totalConfigs)).append(newline);
+        out.append("Unique configs: ").append(Integer.toString(uniqueConfigs)).append(newline);
 
         if(lastConfig != null){
             List<Configuration> path = new LinkedList<>();
@@ -80,12 +224,19 @@ public class Solver {
                 current = configMap.get(current);
             }
 
-            for(int i=0; i<path.size(); i++){
-                System.out.println("Step " + i + ": " + path.get(i));
+            int i = 0;
+            for(Configuration step : path){
+                out.append("Step ").append(Integer.toString(i++)).append(": ");
+                Move move = i == 1 ? null : step.getMove();
+                if(move != null){
+                    out.append(move.toString());
+                }
+                step.appendTo(out);
+                out.append(newline);
             }
         }
         else{
-            System.out.println("No solution");
+            out.append("No solution").append(newline);
         }
     }
 
@@ -100,7 +251,7 @@ public class Solver {
     /**
      * Calls the solver function to return the first configuration in the path.
      * @param initialConfig starting configuration
-     * @return next move to solve the puzzle
+     * @return next move to solve the puzzle; its {@link Configuration#getMove()} says what the move is
      */
     public static Configuration getHint(Configuration initialConfig){
         return solver(initialConfig, false);
@@ -110,7 +261,7 @@ public class Solver {
      * Returns the first move that will result in the shortest solution.
      * @param configMap contains the path of configurations
      * @param lastConfig the solution configuration
-     * @return configuration for the next move
+     * @return configuration for the next move, whose {@link Configuration#getMove()} says what the move is
      */
     public static Configuration nextMove(Map<Configuration, Configuration> configMap, Configuration lastConfig){
         if(lastConfig == null){
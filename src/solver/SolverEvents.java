@@ -0,0 +1,176 @@
+package solver;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder events for the solver and the puzzle models. They are always on, and cost only a
+ * check of whether they are being recorded when no recording is running. To record them, start the program
+ * with -XX:StartFlightRecording and open the recording in JDK Mission Control, or print it with
+ * "jfr print --categories Puzzles recording.jfr".
+ *
+ * @author Eli Lurie
+ */
+public final class SolverEvents {
+
+    /**
+     * Not used, this class only holds the event types.
+     */
+    private SolverEvents(){
+    }
+
+    /**
+     * One whole breadth first search
+     */
+    @Name("puzzles.Search")
+    @Label("Search")
+    @Category({"Puzzles", "Solver"})
+    @Description("A breadth first search from start to solution")
+    public static class Search extends Event {
+        @Label("Puzzle")
+        String puzzle;
+        @Label("Depth")
+        @Description("Moves in the shortest solution, or -1 if there is none")
+        int depth;
+        @Label("Frontier Size")
+        int frontier;
+        @Label("Visited Size")
+        int visited;
+        @Label("Total Configs")
+        int totalConfigs;
+
+        /**
+         * Ends the event and records it if a recording wants it.
+         * @param puzzle name of the puzzle
+         * @param result the outcome of the search
+         */
+        void finish(String puzzle, SearchResult result){
+            end();
+            if(shouldCommit()){
+                this.puzzle = puzzle;
+                this.depth = result.getDepth();
+                this.frontier = result.getFrontierSize();
+                this.visited = result.getPredecessors().size();
+                this.totalConfigs = result.getTotalConfigs();
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Expanding every configuration at one distance from the start
+     */
+    @Name("puzzles.Level")
+    @Label("Search Level")
+    @Category({"Puzzles", "Solver"})
+    @Description("Expanding one level of a breadth first search")
+    public static class Level extends Event {
+        @Label("Puzzle")
+        String puzzle;
+        @Label("Depth")
+        int depth;
+        @Label("Frontier Size")
+        @Description("Configurations waiting to be expanded when the level ended")
+        int frontier;
+        @Label("Visited Size")
+        int visited;
+
+        /**
+         * Ends the event and records it if a recording wants it.
+         * @param puzzle name of the puzzle
+         * @param depth distance of the level from the start
+         * @param frontier configurations waiting to be expanded
+         * @param visited configurations seen so far
+         */
+        void finish(String puzzle, int depth, int frontier, int visited){
+            end();
+            if(shouldCommit()){
+                this.puzzle = puzzle;
+                this.depth = depth;
+                this.frontier = frontier;
+                this.visited = visited;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * One call to {@link Configuration#getNeighbors()}, recorded only when it is slow
+     */
+    @Name("puzzles.Neighbors")
+    @Label("Neighbors")
+    @Category({"Puzzles", "Solver"})
+    @Description("Generating the neighbors of one configuration")
+    @Threshold("1 ms")
+    public static class Neighbors extends Event {
+        @Label("Puzzle")
+        String puzzle;
+        @Label("Depth")
+        int depth;
+        @Label("Neighbors")
+        int neighbors;
+        @Label("Frontier Size")
+        int frontier;
+        @Label("Visited Size")
+        int visited;
+
+        /**
+         * Ends the event and records it if it took longer than the threshold.
+         * @param puzzle name of the puzzle
+         * @param depth distance of the configuration from the start
+         * @param neighbors number of neighbors generated
+         * @param frontier configurations waiting to be expanded
+         * @param visited configurations seen so far
+         */
+        void finish(String puzzle, int depth, int neighbors, int frontier, int visited){
+            end();
+            if(shouldCommit()){
+                this.puzzle = puzzle;
+                this.depth = depth;
+                this.neighbors = neighbors;
+                this.frontier = frontier;
+                this.visited = visited;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * A hint asked for by a player through a puzzle model
+     */
+    @Name("puzzles.Hint")
+    @Label("Hint")
+    @Category({"Puzzles", "Model"})
+    @Description("Finding the next move for a player")
+    public static class Hint extends Event {
+        @Label("Puzzle")
+        String puzzle;
+        @Label("Depth")
+        @Description("Moves left in the shortest solution, or -1 if there is none")
+        int depth;
+        @Label("Frontier Size")
+        int frontier;
+        @Label("Visited Size")
+        int visited;
+
+        /**
+         * Ends the event and records it if a recording wants it.
+         * @param puzzle name of the puzzle, such as the file it was loaded from
+         * @param result the search the hint came from
+         */
+        public void finish(String puzzle, SearchResult result){
+            end();
+            if(shouldCommit()){
+                this.puzzle = puzzle;
+                this.depth = result.getDepth();
+                this.frontier = result.getFrontierSize();
+                this.visited = result.getPredecessors().size();
+                commit();
+            }
+        }
+    }
+}
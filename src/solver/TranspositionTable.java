@@ -0,0 +1,96 @@
+package solver;
+
+/**
+ * A fixed-size table of the shallowest depth each configuration was reached at during one iteration of a
+ * depth first search. It never grows: each fingerprint hashes to a bucket of two entries, one that keeps the
+ * shallowest entry it has seen this iteration, since those cut off the largest subtrees, and one that is
+ * always replaced, so recent configurations are remembered as well.
+ *
+ * @author Eli Lurie
+ */
+class TranspositionTable {
+    // a fingerprint and a packed iteration and depth
+    static final int ENTRY_BYTES = Long.BYTES + Integer.BYTES;
+    private static final int DEPTH_BITS = 16;
+    private static final int DEPTH_MASK = (1 << DEPTH_BITS) - 1;
+
+    private final long[] keys;
+    // iteration in the high bits and depth in the low bits, 0 for an empty entry since iterations start at 1
+    private final int[] entries;
+    private final int mask;
+
+    /**
+     * Creates an empty table
+     * @param megabytes most memory the table may use
+     */
+    TranspositionTable(int megabytes){
+        long fit = (long) megabytes * 1024 * 1024 / ENTRY_BYTES / 2;
+        int buckets = Integer.highestOneBit((int) Math.max(1, Math.min(fit, 1 << 28)));
+        keys = new long[buckets * 2];
+        entries = new int[buckets * 2];
+        mask = buckets - 1;
+    }
+
+    /**
+     * Returns the number of entries the table can hold
+     * @return capacity
+     */
+    int capacity(){
+        return keys.length;
+    }
+
+    /**
+     * Finds the first entry of a fingerprint's bucket
+     * @param fingerprint fingerprint of the configuration
+     * @return index of the depth-preferred entry, the always-replace entry follows it
+     */
+    private int bucket(long fingerprint){
+        return ((int) LongLongMap.mix(fingerprint) & mask) * 2;
+    }
+
+    /**
+     * Returns the shallowest depth a configuration was reached at during an iteration
+     * @param fingerprint fingerprint of the configuration
+     * @param iteration the current iteration, starting at 1
+     * @return the depth, or -1 if the table does not remember it
+     */
+    int get(long fingerprint, int iteration){
+        int i = bucket(fingerprint);
+        for(int j=i; j<i + 2; j++){
+            if(keys[j] == fingerprint && entries[j] >>> DEPTH_BITS == iteration){
+                return entries[j] & DEPTH_MASK;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Remembers the depth a configuration was reached at, unless it was reached shallower this iteration
+     * @param fingerprint fingerprint of the configuration
+     * @param iteration the current iteration, starting at 1
+     * @param depth moves from the start, less than 65536
+     */
+    void put(long fingerprint, int iteration, int depth){
+        int entry = iteration << DEPTH_BITS | depth;
+        int i = bucket(fingerprint);
+        for(int j=i; j<i + 2; j++){
+            if(keys[j] == fingerprint && entries[j] >>> DEPTH_BITS == iteration){
+                if(depth < (entries[j] & DEPTH_MASK)){
+                    entries[j] = entry;
+                }
+                return;
+            }
+        }
+        if(entries[i] >>> DEPTH_BITS != iteration || depth <= (entries[i] & DEPTH_MASK)){
+            // the new entry is at least as deep in value, so the old one moves to the always-replace slot
+            keys[i + 1] = keys[i];
+            entries[i + 1] = entries[i];
+            keys[i] = fingerprint;
+            entries[i] = entry;
+        }
+        else{
+            keys[i + 1] = fingerprint;
+            entries[i + 1] = entry;
+        }
+    }
+}
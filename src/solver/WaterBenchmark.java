@@ -0,0 +1,76 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the time the solver takes with WaterConfiguration and with PackedWaterConfiguration
+ * on puzzles with 5 to 8 buckets.
+ *
+ * @author Eli Lurie
+ */
+public class WaterBenchmark {
+    /**
+     * Each instance is the amount to find followed by the bucket capacities
+     */
+    private static final int[][] INSTANCES = {
+            {1, 4, 6, 10, 14, 22},
+            {1, 2, 4, 6, 8, 10, 12},
+            {19, 2, 5, 7, 9, 12, 14, 20},
+            {1, 2, 2, 2, 4, 4, 4, 6, 6}
+    };
+    private static final int ROUNDS = 5;
+
+    /**
+     * Solves the puzzle with the boxed list configuration
+     * @param amount amount of water to find
+     * @param capacities bucket capacities
+     * @return the first move
+     */
+    private static Configuration solveBoxed(int amount, int[] capacities){
+        List<Integer> max = new ArrayList<>();
+        List<Integer> current = new ArrayList<>();
+        for(int capacity : capacities){
+            max.add(capacity);
+            current.add(0);
+        }
+        return Solver.getHint(new WaterConfiguration(max, current, amount));
+    }
+
+    /**
+     * Solves the puzzle with the packed configuration
+     * @param amount amount of water to find
+     * @param capacities bucket capacities
+     * @return the first move
+     */
+    private static Configuration solvePacked(int amount, int[] capacities){
+        return Solver.getHint(new PackedWaterConfiguration(capacities, new int[capacities.length], amount));
+    }
+
+    /**
+     * Runs every instance several times with each configuration and prints the best time of each
+     * @param args not used
+     */
+    public static void main(String[] args){
+        for(int[] instance : INSTANCES){
+            int amount = instance[0];
+            int[] capacities = Arrays.copyOfRange(instance, 1, instance.length);
+            long boxedBest = Long.MAX_VALUE;
+            long packedBest = Long.MAX_VALUE;
+            String boxedMove = null;
+            String packedMove = null;
+            for(int round=0; round<ROUNDS; round++){
+                long start = System.nanoTime();
+                boxedMove = String.valueOf(solveBoxed(amount, capacities));
+                boxedBest = Math.min(boxedBest, System.nanoTime() - start);
+                start = System.nanoTime();
+                packedMove = String.valueOf(solvePacked(amount, capacities));
+                packedBest = Math.min(packedBest, System.nanoTime() - start);
+            }
+            System.out.printf("Amount: %d, Buckets: %s -> boxed %.1f ms, packed %.1f ms%s%n",
+                    amount, Arrays.toString(capacities), boxedBest / 1e6, packedBest / 1e6,
+                    boxedMove.equals(packedMove) ? "" : " (first moves differ!)");
+        }
+    }
+}
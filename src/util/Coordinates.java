@@ -14,7 +14,7 @@ import java.util.*;
 
         int distance = 2;
 
-        for ( Direction d: CARDINAL_NEIGHBORS ) {
+        for ( Direction d: cardinalNeighbors() ) {
             System.out.println(
                     "Distance " + distance +
                     " in direction " + d + " is " +
@@ -22,7 +22,7 @@ import java.util.*;
             );
         }
         System.out.println();
-        for ( Direction d: INTERCARDINAL_NEIGHBORS ) {
+        for ( Direction d: intercardinalNeighbors() ) {
             System.out.println(
                     "Distance " + distance +
                     " in direction " + d + " is " +
@@ -79,20 +79,38 @@ public class Coordinates {
         }
     }
 
+    /**
+     * Holds the lists of directions, so that they are built the first
+     * time they are asked for rather than when Coordinates is loaded.
+     * Creating each Direction creates a Coordinates, so when Direction
+     * is loaded first, Coordinates is loaded before any direction
+     * exists, and lists built then would be full of nulls.
+     */
+    private static final class Neighbors {
+        private static final List< Direction > CARDINAL = List.of(
+                Direction.NORTH, Direction.EAST, Direction.SOUTH, Direction.WEST
+        );
+        private static final List< Direction > INTERCARDINAL = List.of(
+                Direction.NORTHWEST, Direction.NORTHEAST,
+                Direction.SOUTHWEST, Direction.SOUTHEAST
+        );
+    }
+
     /**
      * The four principal "compass" directions
+     * @return north, east, south and west, in that order
      */
-    public static final Direction[] CARDINAL_NEIGHBORS = {
-            Direction.NORTH, Direction.EAST, Direction.SOUTH, Direction.WEST
-    };
+    public static List< Direction > cardinalNeighbors() {
+        return Neighbors.CARDINAL;
+    }
 
     /**
      * The four diagonal directions
+     * @return northwest, northeast, southwest and southeast, in that order
      */
-    public static final Direction[] INTERCARDINAL_NEIGHBORS = {
-            Direction.NORTHWEST, Direction.NORTHEAST,
-            Direction.SOUTHWEST, Direction.SOUTHEAST
-    };
+    public static List< Direction > intercardinalNeighbors() {
+        return Neighbors.INTERCARDINAL;
+    }
 
     private final int row;
     private final int col;
@@ -227,7 +245,7 @@ public class Coordinates {
 
         int distance = 2;
 
-        for ( Direction d: CARDINAL_NEIGHBORS ) {
+        for ( Direction d: cardinalNeighbors() ) {
             System.out.println(
                     "Distance " + distance +
                     " in direction " + d + " is " +
@@ -235,7 +253,7 @@ public class Coordinates {
             );
         }
         System.out.println();
-        for ( Direction d: INTERCARDINAL_NEIGHBORS ) {
+        for ( Direction d: intercardinalNeighbors() ) {
             System.out.println(
                     "Distance " + distance +
                     " in direction " + d + " is " +
@@ -0,0 +1,175 @@
+package util;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Delivers a subject's updates to its {@link Observer}s, each on its own
+ * executor, so a slow observer does not hold up the subject.
+ * <br><br>
+ * If updates are published faster than an observer's executor runs them,
+ * they are coalesced: the observer is only given the latest one once its
+ * executor gets to it. Observers should therefore read the subject's
+ * current state rather than count on seeing every update. An observer
+ * subscribed with {@link Runnable#run()} as its executor is called on the
+ * publishing thread before {@link #publish(Object)} returns, and sees every
+ * update, like a plain observer list.
+ * <br><br>
+ * Demonstration of Use
+ * <pre>
+        EventBus&lt; Subj, String &gt; bus = new EventBus&lt;&gt;( subj );
+        bus.subscribe( console, Runnable::run );         // every update, right away
+        bus.subscribeWeakly( window, Platform::runLater ); // latest update, on the FX thread
+        bus.publish( "increment happened" );
+ </pre>
+ *
+ * @param <Subject>    the type of object being observed
+ * @param <ClientData> the data sent with each update
+ * @author Eli Lurie
+ */
+public class EventBus< Subject, ClientData > {
+
+    private final Subject subject;
+
+    private final List< Subscription > subscriptions =
+            new CopyOnWriteArrayList<>();
+
+    /**
+     * An update waiting to be delivered, boxed so that null data can be told
+     * apart from no update at all
+     * @param data the data sent with the update
+     * @param <T> the type of the data
+     */
+    private record Pending< T >( T data ) {}
+
+    /**
+     * One observer, the executor it is called on, and the latest update it
+     * has not been given yet.
+     */
+    private class Subscription implements Runnable {
+        private final Observer< Subject, ClientData > strong;
+        private final WeakReference< Observer< Subject, ClientData > > weak;
+        private final Executor executor;
+        private final AtomicReference< Pending< ClientData > > pending =
+                new AtomicReference<>();
+
+        /**
+         * Create a subscription.
+         * @param observer the observer
+         * @param executor runs the observer's updates
+         * @param weakly true to let the observer be garbage collected
+         */
+        private Subscription( Observer< Subject, ClientData > observer,
+                              Executor executor, boolean weakly ) {
+            this.strong = weakly ? null : observer;
+            this.weak = weakly ? new WeakReference<>( observer ) : null;
+            this.executor = executor;
+        }
+
+        /**
+         * Fetch the observer.
+         * @return the observer, or null if it was garbage collected
+         */
+        private Observer< Subject, ClientData > observer() {
+            return this.strong != null ? this.strong : this.weak.get();
+        }
+
+        /**
+         * Make this update the one to deliver, and schedule a delivery
+         * unless one is already waiting to run.
+         * @param data the data sent with the update
+         */
+        private void offer( ClientData data ) {
+            if ( this.pending.getAndSet( new Pending<>( data ) ) == null ) {
+                this.executor.execute( this );
+            }
+        }
+
+        /**
+         * Deliver the latest update to the observer.
+         */
+        @Override
+        public void run() {
+            Pending< ClientData > latest = this.pending.getAndSet( null );
+            Observer< Subject, ClientData > observer = observer();
+            if ( observer == null ) {
+                subscriptions.remove( this );
+            }
+            else if ( latest != null ) {
+                observer.update( subject, latest.data() );
+            }
+        }
+    }
+
+    /**
+     * Create a bus with no observers.
+     * @param subject the object whose updates are published, passed to
+     *                every observer
+     */
+    public EventBus( Subject subject ) {
+        this.subject = subject;
+    }
+
+    /**
+     * Add an observer. The bus keeps it alive until it is unsubscribed.
+     * @param observer the observer
+     * @param executor runs the observer's updates; it should run them one at
+     *                 a time, in order
+     */
+    public void subscribe( Observer< Subject, ClientData > observer,
+                           Executor executor ) {
+        this.subscriptions.add( new Subscription( observer, executor, false ) );
+    }
+
+    /**
+     * Add an observer through a weak reference, so that it is dropped once
+     * nothing else refers to it, without having to be unsubscribed.
+     * @param observer the observer
+     * @param executor runs the observer's updates; it should run them one at
+     *                 a time, in order
+     */
+    public void subscribeWeakly( Observer< Subject, ClientData > observer,
+                                 Executor executor ) {
+        this.subscriptions.add( new Subscription( observer, executor, true ) );
+    }
+
+    /**
+     * Remove an observer.
+     * @param observer the observer
+     */
+    public void unsubscribe( Observer< Subject, ClientData > observer ) {
+        this.subscriptions.removeIf( s -> s.observer() == observer );
+    }
+
+    /**
+     * Publish an update to every observer.
+     * @param data the data sent with the update
+     */
+    public void publish( ClientData data ) {
+        for ( Subscription subscription: this.subscriptions ) {
+            if ( subscription.observer() == null ) {
+                this.subscriptions.remove( subscription );
+            }
+            else {
+                subscription.offer( data );
+            }
+        }
+    }
+
+    /**
+     * Count the observers that have not been garbage collected.
+     * @return number of observers
+     */
+    public int size() {
+        int size = 0;
+        for ( Subscription subscription: this.subscriptions ) {
+            if ( subscription.observer() != null ) {
+                size += 1;
+            }
+        }
+        return size;
+    }
+}
@@ -48,10 +48,27 @@ import java.util.Objects;
  */
 public class Grid< Thing> {
 
+    /**
+     * mixed into every Zobrist key, so the keys are not simply the
+     * mixer's outputs for small numbers
+     */
+    private static final long ZOBRIST_SEED = 0x5EED_2021_C0FF_EE00L;
+
     private final int nRows;
     private final int nCols;
     private final Thing[][] spots;
 
+    /**
+     * true if this grid keeps an incremental Zobrist hash
+     */
+    private final boolean hashed;
+
+    /**
+     * XOR of {@link Grid#zobrist(int, int, Object)} over every location,
+     * maintained by each call to set when the grid is hashed
+     */
+    private long zobristHash;
+
     /**
      * Construct a grid using a default element value
      * @param init value to be assigned to all locations
@@ -59,14 +76,40 @@ public class Grid< Thing> {
      * @param width number of columns
      */
     public Grid( Thing init, int height, int width ) {
+        this( init, height, width, false );
+    }
+
+    /**
+     * Construct a grid using a default element value, optionally
+     * keeping a 64-bit Zobrist hash of its contents.
+     * A hashed grid updates its hash in constant time on every set,
+     * so {@link Grid#hashCode()} no longer visits every element, and
+     * {@link Grid#equals(Object)} rejects most unequal grids by
+     * comparing the hashes first.
+     * A hashed grid is never equal to an unhashed one, since their hash
+     * codes differ for the same contents.
+     * @param init value to be assigned to all locations
+     * @param height number of rows
+     * @param width number of columns
+     * @param hashed true to keep a Zobrist hash
+     */
+    public Grid( Thing init, int height, int width, boolean hashed ) {
         this.nRows = height;
         this.nCols = width;
+        this.hashed = hashed;
         //noinspection unchecked
         this.spots = (Thing[][])
                 Array.newInstance( init.getClass(), height, width );
         for ( int r = 0; r < height; ++r ) {
             Arrays.fill( spots[ r ], init );
         }
+        if ( hashed ) {
+            for ( int r = 0; r < height; ++r ) {
+                for ( int c = 0; c < width; ++c ) {
+                    this.zobristHash ^= zobrist( r, c, init );
+                }
+            }
+        }
     }
 
     /**
@@ -89,6 +132,45 @@ public class Grid< Thing> {
         for ( int r = 0; r < this.nRows; ++r ) {
             this.spots[ r ] = Arrays.copyOf( other.spots[ r ], this.nCols );
         }
+        this.hashed = other.hashed;
+        this.zobristHash = other.zobristHash;
+    }
+
+    /**
+     * Compute the Zobrist key of a value at a location.
+     * The cell number, row * width + column, and the value's hash code
+     * are packed into one long and put through the splitmix64 finalizer.
+     * Nothing is stored, and since the finalizer is a bijection, no two
+     * pairs of cell and hash code share a key. The key depends only on
+     * those two numbers, so it is the same in every JVM for values whose
+     * hash codes are, such as Integers and Strings.
+     * @param r row number
+     * @param c column number
+     * @param t the value at (r,c)
+     * @return a well-distributed 64-bit key
+     */
+    private long zobrist( int r, int c, Thing t ) {
+        long key = ( (long)( r * this.nCols + c ) << 32 |
+                     ( Objects.hashCode( t ) & 0xFFFFFFFFL ) ) ^ ZOBRIST_SEED;
+        key = ( key ^ ( key >>> 30 ) ) * 0xBF58476D1CE4E5B9L;
+        key = ( key ^ ( key >>> 27 ) ) * 0x94D049BB133111EBL;
+        return key ^ ( key >>> 31 );
+    }
+
+    /**
+     * Does this grid keep a Zobrist hash?
+     * @return true only if this grid was constructed as hashed
+     */
+    public boolean isHashed() {
+        return this.hashed;
+    }
+
+    /**
+     * Fetch the 64-bit Zobrist hash of this grid's contents.
+     * @return the hash, or 0 if this grid is not hashed
+     */
+    public long getZobristHash() {
+        return this.zobristHash;
     }
 
     /**
@@ -154,6 +236,10 @@ public class Grid< Thing> {
      * @param c column where the value is to be placed
      */
     public void set( Thing t, int r, int c ) {
+        if ( this.hashed ) {
+            this.zobristHash ^= zobrist( r, c, spots[ r ][ c ] ) ^
+                                zobrist( r, c, t );
+        }
         spots[ r ][ c ] = t;
     }
 
@@ -163,7 +249,7 @@ public class Grid< Thing> {
      * @param coord where the value is to be placed
      */
     public void set( Thing t, Coordinates coord ) {
-        spots[ coord.row() ][ coord.col() ] = t;
+        set( t, coord.row(), coord.col() );
     }
 
     /**
@@ -173,13 +259,21 @@ public class Grid< Thing> {
      *         o refers to a Grid,
      *         the dimensions of this Grid and o are the same, and
      *         all corresponding elements of the grids are the same
-     *         by using {@link Arrays#deepEquals(Object[], Object[])}
+     *         by using {@link Arrays#deepEquals(Object[], Object[])}.
+     *         A hashed and an unhashed grid are never equal, so that
+     *         equal grids have equal hash codes. If both grids are
+     *         hashed, differing Zobrist hashes answer false without
+     *         comparing the elements.
      */
     @Override
     public boolean equals( Object o ) {
         if ( this == o ) return true;
         if ( o == null ) return false;
         if ( o instanceof Grid< ? > grid ) {
+            if ( this.hashed != grid.hashed ||
+                 this.hashed && this.zobristHash != grid.zobristHash ) {
+                return false;
+            }
             return Arrays.deepEquals( spots, grid.spots );
         }
         return false;
@@ -187,10 +281,14 @@ public class Grid< Thing> {
 
     /**
      * Compute a hash code for this grid.
-     * @return a value based on {@link Arrays#deepHashCode(Object[])}
+     * @return a value based on {@link Arrays#deepHashCode(Object[])},
+     *         or the folded Zobrist hash if this grid is hashed
      */
     @Override
     public int hashCode() {
+        if ( this.hashed ) {
+            return (int)( this.zobristHash ^ ( this.zobristHash >>> 32 ) );
+        }
         int result = Objects.hash( nRows, nCols );
         result = 31 * result + Arrays.deepHashCode( spots );
         return result;
@@ -1,10 +1,19 @@
 package util.ptui;
 
+import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.Writer;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static java.util.Map.Entry;
 
@@ -20,6 +29,10 @@ import static java.util.Map.Entry;
  * your <code>main</code> method:
  * <br><br>
  * <code>ConsoleApplication.launch(&nbsp;TipOverPTUI.class,&nbsp;args&nbsp;);</code>
+ * <br><br>
+ * For load testing, {@link #replay(Callable, List, int, int, PrintWriter)}
+ * runs command scripts against many instances at once with their output
+ * thrown away, and reports how fast the commands ran.
  *
  * @author RIT CS
  */
@@ -252,28 +265,11 @@ public abstract class ConsoleApplication {
                     out.print( PROMPT ); out.flush();
                     while ( consoleIn.hasNextLine() ) {
                         String nextCommand = consoleIn.nextLine();
-                        String[] operands = nextCommand.split( "\\s+" );
-                        String commandName = operands[ 0 ].toLowerCase();
-                        if ( commandName.equals( QUIT ) ) {
+                        if ( !ConsoleApplication.this.execute( nextCommand ) ) {
                             out.println( "Closing application." );
                             quit = true;
                             break;
                         }
-                        Map< String, CommandInfo > actionMap =
-                                ConsoleApplication.this.actions;
-                        if ( actionMap.containsKey( commandName ) &&
-                             actionMap.get( commandName ).numArgs ==
-                             operands.length - 1 ) {
-                            operands = Arrays.copyOfRange(
-                                    operands, 1, operands.length
-                            );
-                            actionMap.get( commandName )
-                                    .handler.handle( operands );
-                        }
-                        else {
-                            out.println( "Illegal command" );
-                            ConsoleApplication.this.help( NO_ARGS );
-                        }
                         out.print( PROMPT ); out.flush();
                     }
                     if ( !quit ) {
@@ -297,6 +293,185 @@ public abstract class ConsoleApplication {
         }
     }
 
+    /**
+     * Run one command line, giving an error message if it is badly formed.
+     * @param nextCommand the command name followed by its arguments
+     * @return false if the command was {@link #QUIT the quit string}
+     */
+    private boolean execute( String nextCommand ) {
+        String[] operands = nextCommand.split( "\\s+" );
+        String commandName = operands[ 0 ].toLowerCase();
+        if ( commandName.equals( QUIT ) ) {
+            return false;
+        }
+        CommandInfo info = this.actions.get( commandName );
+        if ( info != null && info.numArgs == operands.length - 1 ) {
+            info.handler.handle(
+                    Arrays.copyOfRange( operands, 1, operands.length ) );
+        }
+        else {
+            this.out.println( "Illegal command" );
+            help( NO_ARGS );
+        }
+        return true;
+    }
+
+    /* *** Replay methods ***************************************************/
+
+    /**
+     * One instance of an application that replay sends commands to
+     */
+    public interface ReplaySession {
+        /**
+         * Run a command line
+         * @param command the command name followed by its arguments
+         * @return false if the command ends the session
+         */
+        public abstract boolean execute( String command );
+    }
+
+    /**
+     * Replay command scripts against instances of a console application,
+     * with everything they print thrown away.
+     * The application is set up as by {@link #launch(Class, String[])},
+     * except that {@link #start(PrintWriter) start} is given a writer that
+     * discards its output.
+     * @see #replay(Callable, List, int, int, PrintWriter)
+     *
+     * @param ptuiClass the class object that refers to the class to
+     *             be instantiated
+     * @param args the command line arguments each instance gets
+     * @param scripts files of commands, one per line
+     * @param instances how many instances to run
+     * @param threads how many instances run at the same time
+     * @param report where the throughput and latencies are printed
+     * @throws IOException if a script cannot be read
+     */
+    public static void replay(
+            Class< ? extends ConsoleApplication > ptuiClass, String[] args,
+            List< Path > scripts, int instances, int threads,
+            PrintWriter report
+    ) throws IOException {
+        replay( () -> {
+            ConsoleApplication ptuiApp = ptuiClass.getConstructor().newInstance();
+            ptuiApp.cmdLineArgs = Arrays.copyOf( args, args.length );
+            ptuiApp.init();
+            ptuiApp.actions = new HashMap<>();
+            ptuiApp.setOnCommand( HELP, 0, ": Show all commands.",
+                                  ptuiApp::help );
+            ptuiApp.out = new PrintWriter( Writer.nullWriter() );
+            ptuiApp.start( ptuiApp.out );
+            return ptuiApp::execute;
+        }, scripts, instances, threads, report );
+    }
+
+    /**
+     * Replay command scripts against many sessions in parallel, and report
+     * the commands run per second and the latency percentiles of each
+     * command. Session i runs script i modulo the number of scripts, until
+     * the script ends or a command ends the session. Blank lines and lines
+     * starting with # are skipped.
+     *
+     * @param sessions makes a new session, which should print nothing
+     * @param scripts files of commands, one per line
+     * @param instances how many sessions to run
+     * @param threads how many sessions run at the same time
+     * @param report where the throughput and latencies are printed
+     * @throws IOException if a script cannot be read
+     */
+    public static void replay(
+            Callable< ? extends ReplaySession > sessions, List< Path > scripts,
+            int instances, int threads, PrintWriter report
+    ) throws IOException {
+        List< List< String > > commands = new ArrayList<>();
+        for ( Path script: scripts ) {
+            List< String > lines = new ArrayList<>();
+            for ( String line: Files.readAllLines( script ) ) {
+                if ( !line.isBlank() && !line.startsWith( "#" ) ) {
+                    lines.add( line.strip() );
+                }
+            }
+            commands.add( lines );
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool( threads );
+        List< Future< Map< String, List< Long > > > > results =
+                new ArrayList<>();
+        long start = System.nanoTime();
+        for ( int i = 0; i < instances; i++ ) {
+            List< String > script = commands.get( i % commands.size() );
+            results.add( pool.submit( () -> {
+                Map< String, List< Long > > latencies = new HashMap<>();
+                ReplaySession session = sessions.call();
+                for ( String command: script ) {
+                    long before = System.nanoTime();
+                    boolean more = session.execute( command );
+                    long after = System.nanoTime();
+                    latencies.computeIfAbsent(
+                            command.split( "\\s+" )[ 0 ].toLowerCase(),
+                            name -> new ArrayList<>() ).add( after - before );
+                    if ( !more ) {
+                        break;
+                    }
+                }
+                return latencies;
+            } ) );
+        }
+
+        Map< String, List< Long > > latencies = new TreeMap<>();
+        try {
+            for ( Future< Map< String, List< Long > > > result: results ) {
+                for ( Entry< String, List< Long > > entry:
+                        result.get().entrySet() ) {
+                    latencies.computeIfAbsent(
+                            entry.getKey(), name -> new ArrayList<>()
+                    ).addAll( entry.getValue() );
+                }
+            }
+        }
+        catch( InterruptedException | ExecutionException e ) {
+            report.println( "Replay failed: " + e );
+            return;
+        }
+        finally {
+            pool.shutdownNow();
+        }
+        double seconds = ( System.nanoTime() - start ) / 1e9;
+
+        long total = 0;
+        for ( List< Long > times: latencies.values() ) {
+            total += times.size();
+        }
+        report.printf( "%d sessions, %d commands in %.3f s: %.0f commands/s%n",
+                       instances, total, seconds, total / seconds );
+        report.printf( "%-10s %9s %10s %10s %10s %10s%n",
+                       "command", "count", "p50 ms", "p90 ms", "p99 ms",
+                       "max ms" );
+        for ( Entry< String, List< Long > > entry: latencies.entrySet() ) {
+            long[] times = entry.getValue().stream()
+                                .mapToLong( Long::longValue )
+                                .sorted().toArray();
+            report.printf( "%-10s %9d %10.3f %10.3f %10.3f %10.3f%n",
+                           entry.getKey(), times.length,
+                           percentile( times, 50 ) / 1e6,
+                           percentile( times, 90 ) / 1e6,
+                           percentile( times, 99 ) / 1e6,
+                           times[ times.length - 1 ] / 1e6 );
+        }
+        report.flush();
+    }
+
+    /**
+     * Find a percentile of sorted values by the nearest rank method
+     * @param sorted the values, in increasing order
+     * @param percent which percentile, from 1 to 100
+     * @return the value
+     */
+    private static long percentile( long[] sorted, int percent ) {
+        int rank = (int)Math.ceil( percent / 100.0 * sorted.length );
+        return sorted[ Math.max( rank, 1 ) - 1 ];
+    }
+
     /**
      * Fetch the application's command line arguments
      * @return the string array that was passed to launch, if any, or else